@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans the regular polls of all pollers of an endpoint. Polls with the same slave id, function code and refresh
+ * interval are merged into a single read if their ranges overlap or are at most maxGap registers (or bits) apart,
+ * and the merged read does not exceed the protocol limit of a single request. The response of a merged read is
+ * split back into one response per poller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlanner {
+
+    /**
+     * A regular poll registered by a poller
+     */
+    public static class Poll {
+        private final ModbusReadRequestBlueprint request;
+        private final long refreshMillis;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+
+        private Poll(ModbusReadRequestBlueprint request, long refreshMillis, ModbusReadCallback resultCallback,
+                ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.refreshMillis = refreshMillis;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+
+        private int start() {
+            return request.getReference();
+        }
+
+        private int end() {
+            return request.getReference() + request.getDataLength();
+        }
+
+        private GroupKey groupKey() {
+            return new GroupKey(request.getUnitID(), request.getFunctionCode(), refreshMillis);
+        }
+    }
+
+    /**
+     * Statistics of the planned polls
+     *
+     * @param polls the number of registered polls
+     * @param reads the number of reads the polls are merged into
+     * @param savedTransactions the number of transactions saved by merging since the planner was created
+     * @param maxCycleMillis the longest time between two consecutive responses of a merged read, -1 if unknown
+     */
+    public record PollStatistics(int polls, int reads, long savedTransactions, long maxCycleMillis) {
+    }
+
+    private record GroupKey(int slaveId, ModbusReadFunctionCode functionCode, long refreshMillis) {
+    }
+
+    /**
+     * A read registered with the communication interface, serving one or more polls
+     */
+    private class MergedRead implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final ModbusReadRequestBlueprint request;
+        private final List<Poll> polls;
+        private final AtomicLong lastResponse = new AtomicLong();
+        private final AtomicLong maxCycleMillis = new AtomicLong(-1);
+        private @Nullable PollTask pollTask;
+
+        private MergedRead(ModbusReadRequestBlueprint request, List<Poll> polls) {
+            this.request = request;
+            this.polls = polls;
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            long now = System.currentTimeMillis();
+            long last = lastResponse.getAndSet(now);
+            long cycleMillis = last > 0 ? now - last : -1;
+            maxCycleMillis.accumulateAndGet(cycleMillis, Math::max);
+            savedTransactions.add(polls.size() - 1);
+            logger.trace("Merged read {} served {} polls, cycle {} ms", request, polls.size(), cycleMillis);
+
+            result.getRegisters().ifPresent(registers -> polls.forEach(poll -> splitRegisters(poll, registers)));
+            result.getBits().ifPresent(bits -> polls.forEach(poll -> splitBits(poll, bits)));
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            polls.forEach(poll -> poll.failureCallback
+                    .handle(new AsyncModbusFailure<>(poll.request, failure.getCause())));
+        }
+
+        private void splitRegisters(Poll poll, ModbusRegisterArray registers) {
+            int offset = poll.start() - request.getReference();
+            int length = poll.request.getDataLength();
+            if (registers.size() < offset + length) {
+                poll.failureCallback.handle(new AsyncModbusFailure<>(poll.request, new IllegalStateException(
+                        String.format("Merged response has %d registers, expected at least %d", registers.size(),
+                                offset + length))));
+                return;
+            }
+            byte[] bytes = new byte[length * 2];
+            System.arraycopy(registers.getBytes(), offset * 2, bytes, 0, bytes.length);
+            poll.resultCallback.handle(new AsyncModbusReadResult(poll.request, new ModbusRegisterArray(bytes)));
+        }
+
+        private void splitBits(Poll poll, BitArray bits) {
+            int offset = poll.start() - request.getReference();
+            int length = poll.request.getDataLength();
+            if (bits.size() < offset + length) {
+                poll.failureCallback.handle(new AsyncModbusFailure<>(poll.request, new IllegalStateException(
+                        String.format("Merged response has %d bits, expected at least %d", bits.size(),
+                                offset + length))));
+                return;
+            }
+            boolean[] values = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = bits.getBit(offset + i);
+            }
+            poll.resultCallback.handle(new AsyncModbusReadResult(poll.request, new BitArray(values)));
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollPlanner.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final int maxGap;
+    private final Map<GroupKey, List<Poll>> pollsByGroup = new HashMap<>();
+    private final Map<GroupKey, List<MergedRead>> readsByGroup = new HashMap<>();
+    private final LongAdder savedTransactions = new LongAdder();
+
+    /**
+     * @param comms the communication interface of the endpoint
+     * @param maxGap the maximum number of unused registers (or bits) between two merged polls
+     */
+    public ModbusPollPlanner(ModbusCommunicationInterface comms, int maxGap) {
+        this.comms = comms;
+        this.maxGap = Math.max(0, maxGap);
+    }
+
+    /**
+     * Register a regular poll. The callbacks receive responses and failures for the given request, even if the poll
+     * is merged with others.
+     *
+     * @param request the request of the poller
+     * @param refreshMillis the poll interval
+     * @param resultCallback callback for the responses
+     * @param failureCallback callback for the failures
+     * @return the poll, to be passed to {@link #unregisterRegularPoll(Poll)}
+     */
+    public synchronized Poll registerRegularPoll(ModbusReadRequestBlueprint request, long refreshMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        Poll poll = new Poll(request, refreshMillis, resultCallback, failureCallback);
+        GroupKey key = poll.groupKey();
+        pollsByGroup.computeIfAbsent(key, k -> new ArrayList<>()).add(poll);
+        replan(key);
+        return poll;
+    }
+
+    /**
+     * Unregister a regular poll. The remaining polls are planned again.
+     *
+     * @param poll the poll returned by {@link #registerRegularPoll}
+     * @return whether the poll was registered
+     */
+    public synchronized boolean unregisterRegularPoll(Poll poll) {
+        GroupKey key = poll.groupKey();
+        List<Poll> polls = pollsByGroup.get(key);
+        if (polls == null || !polls.remove(poll)) {
+            return false;
+        }
+        if (polls.isEmpty()) {
+            pollsByGroup.remove(key);
+        }
+        replan(key);
+        return true;
+    }
+
+    /**
+     * Unregister all reads from the communication interface.
+     */
+    public synchronized void close() {
+        readsByGroup.values().forEach(reads -> reads.forEach(this::unregister));
+        readsByGroup.clear();
+        pollsByGroup.clear();
+    }
+
+    public synchronized PollStatistics getStatistics() {
+        int polls = pollsByGroup.values().stream().mapToInt(List::size).sum();
+        int reads = readsByGroup.values().stream().mapToInt(List::size).sum();
+        long maxCycleMillis = readsByGroup.values().stream().flatMap(List::stream)
+                .filter(read -> read.polls.size() > 1).mapToLong(read -> read.maxCycleMillis.get()).max().orElse(-1);
+        return new PollStatistics(polls, reads, savedTransactions.sum(), maxCycleMillis);
+    }
+
+    private void replan(GroupKey key) {
+        List<MergedRead> oldReads = readsByGroup.remove(key);
+        if (oldReads != null) {
+            oldReads.forEach(this::unregister);
+        }
+        List<Poll> polls = pollsByGroup.get(key);
+        if (polls == null) {
+            return;
+        }
+        List<MergedRead> reads = plan(polls, maxLength(key.functionCode()), maxGap);
+        for (MergedRead read : reads) {
+            read.pollTask = comms.registerRegularPoll(read.request, key.refreshMillis(), 0, read, read);
+        }
+        readsByGroup.put(key, reads);
+        logger.debug("Planned {} polls of slave {} ({}, every {} ms) as {} reads", polls.size(), key.slaveId(),
+                key.functionCode(), key.refreshMillis(), reads.size());
+    }
+
+    private List<MergedRead> plan(List<Poll> polls, int maxLength, int maxGap) {
+        List<Poll> sorted = new ArrayList<>(polls);
+        sorted.sort(Comparator.comparingInt(Poll::start).thenComparingInt(Poll::end));
+
+        List<MergedRead> reads = new ArrayList<>();
+        List<Poll> current = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (Poll poll : sorted) {
+            if (!current.isEmpty() && poll.start() - end <= maxGap && Math.max(end, poll.end()) - start <= maxLength) {
+                current.add(poll);
+                end = Math.max(end, poll.end());
+                continue;
+            }
+            if (!current.isEmpty()) {
+                reads.add(createRead(current, start, end));
+            }
+            current = new ArrayList<>();
+            current.add(poll);
+            start = poll.start();
+            end = poll.end();
+        }
+        if (!current.isEmpty()) {
+            reads.add(createRead(current, start, end));
+        }
+        return reads;
+    }
+
+    private MergedRead createRead(List<Poll> polls, int start, int end) {
+        if (polls.size() == 1) {
+            // Nothing to merge, keep the request of the poller
+            return new MergedRead(polls.get(0).request, List.copyOf(polls));
+        }
+        ModbusReadRequestBlueprint first = polls.get(0).request;
+        int maxTries = polls.stream().mapToInt(poll -> poll.request.getMaxTries()).max().orElse(first.getMaxTries());
+        ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(first.getUnitID(),
+                first.getFunctionCode(), start, end - start, maxTries);
+        return new MergedRead(request, List.copyOf(polls));
+    }
+
+    private void unregister(MergedRead read) {
+        PollTask pollTask = read.pollTask;
+        if (pollTask != null) {
+            comms.unregisterRegularPoll(pollTask);
+            read.pollTask = null;
+        }
+    }
+
+    private static int maxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return ModbusConstants.MAX_BITS_READ_COUNT;
+            default:
+                return ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class ModbusTcpConfiguration {
     private int afterConnectionDelayMillis;
     private int connectTimeoutMillis = 10_000;
     private boolean enableDiscovery;
+    private int pollMergeMaxGap = -1;
     private boolean rtuEncoded;
 
     public boolean getRtuEncoded() {
@@ -118,4 +119,12 @@ public class ModbusTcpConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public int getPollMergeMaxGap() {
+        return pollMergeMaxGap;
+    }
+
+    public void setPollMergeMaxGap(int pollMergeMaxGap) {
+        this.pollMergeMaxGap = pollMergeMaxGap;
+    }
 }
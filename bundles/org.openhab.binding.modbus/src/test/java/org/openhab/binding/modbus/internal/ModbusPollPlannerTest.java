@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlannerTest {
+
+    private static class Recorder implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final List<AsyncModbusReadResult> results = new ArrayList<>();
+        private final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            failures.add(failure);
+        }
+    }
+
+    private final ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+
+    private static ModbusReadRequestBlueprint request(ModbusReadFunctionCode functionCode, int start, int length) {
+        return new ModbusReadRequestBlueprint(1, functionCode, start, length, 3);
+    }
+
+    private static boolean[] bits(BitArray bitArray) {
+        boolean[] bits = new boolean[bitArray.size()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = bitArray.getBit(i);
+        }
+        return bits;
+    }
+
+    @SuppressWarnings({ "unchecked", "null" })
+    private List<ModbusReadRequestBlueprint> registeredRequests(int times, List<ModbusReadCallback> callbacks) {
+        ArgumentCaptor<ModbusReadRequestBlueprint> requests = ArgumentCaptor.forClass(ModbusReadRequestBlueprint.class);
+        ArgumentCaptor<ModbusReadCallback> resultCallbacks = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        verify(comms, times(times)).registerRegularPoll(requests.capture(), eq(1000L), eq(0L),
+                resultCallbacks.capture(), any(ModbusFailureCallback.class));
+        callbacks.addAll(resultCallbacks.getAllValues());
+        return requests.getAllValues();
+    }
+
+    @Test
+    public void testAdjacentRegistersAreMerged() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 2);
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        ModbusReadRequestBlueprint firstRequest = request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4);
+        ModbusReadRequestBlueprint secondRequest = request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 2);
+
+        planner.registerRegularPoll(firstRequest, 1000, first, first);
+        planner.registerRegularPoll(secondRequest, 1000, second, second);
+
+        // the second registration replaces the read of the first poll with a merged read
+        List<ModbusReadCallback> callbacks = new ArrayList<>();
+        List<ModbusReadRequestBlueprint> requests = registeredRequests(2, callbacks);
+        verify(comms, times(1)).unregisterRegularPoll(any());
+        ModbusReadRequestBlueprint merged = requests.get(1);
+        assertEquals(0, merged.getReference());
+        assertEquals(8, merged.getDataLength());
+
+        callbacks.get(1).handle(new AsyncModbusReadResult(merged, new ModbusRegisterArray(0, 1, 2, 3, 4, 5, 6, 7)));
+
+        assertEquals(1, first.results.size());
+        assertSame(firstRequest, first.results.get(0).getRequest());
+        assertArrayEquals(new ModbusRegisterArray(0, 1, 2, 3).getBytes(),
+                first.results.get(0).getRegisters().get().getBytes());
+        assertEquals(1, second.results.size());
+        assertSame(secondRequest, second.results.get(0).getRequest());
+        assertArrayEquals(new ModbusRegisterArray(6, 7).getBytes(),
+                second.results.get(0).getRegisters().get().getBytes());
+
+        ModbusPollPlanner.PollStatistics statistics = planner.getStatistics();
+        assertEquals(2, statistics.polls());
+        assertEquals(1, statistics.reads());
+        assertEquals(1, statistics.savedTransactions());
+    }
+
+    @Test
+    public void testMaxCycleIsTheLongestCycle() throws InterruptedException {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 2);
+        Recorder recorder = new Recorder();
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4), 1000, recorder,
+                recorder);
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 2), 1000, recorder,
+                recorder);
+        List<ModbusReadCallback> callbacks = new ArrayList<>();
+        ModbusReadRequestBlueprint merged = registeredRequests(2, callbacks).get(1);
+        AsyncModbusReadResult result = new AsyncModbusReadResult(merged,
+                new ModbusRegisterArray(0, 1, 2, 3, 4, 5, 6, 7));
+
+        callbacks.get(1).handle(result);
+        assertEquals(-1, planner.getStatistics().maxCycleMillis());
+        Thread.sleep(200);
+        callbacks.get(1).handle(result);
+        callbacks.get(1).handle(result);
+
+        assertTrue(planner.getStatistics().maxCycleMillis() >= 200);
+    }
+
+    @Test
+    public void testDistantOrDifferentPollsAreNotMerged() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 2);
+        Recorder recorder = new Recorder();
+
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4), 1000, recorder,
+                recorder);
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 7, 2), 1000, recorder,
+                recorder);
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 4, 2), 1000, recorder,
+                recorder);
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 120, 10), 1000, recorder,
+                recorder);
+
+        assertEquals(4, planner.getStatistics().reads());
+    }
+
+    @Test
+    public void testBitsAndFailuresAreSplit() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 0);
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        ModbusReadRequestBlueprint firstRequest = request(ModbusReadFunctionCode.READ_COILS, 0, 2);
+        ModbusReadRequestBlueprint secondRequest = request(ModbusReadFunctionCode.READ_COILS, 2, 3);
+
+        planner.registerRegularPoll(firstRequest, 1000, first, first);
+        planner.registerRegularPoll(secondRequest, 1000, second, second);
+
+        List<ModbusReadCallback> callbacks = new ArrayList<>();
+        ModbusReadRequestBlueprint merged = registeredRequests(2, callbacks).get(1);
+        ModbusReadCallback callback = callbacks.get(1);
+        callback.handle(new AsyncModbusReadResult(merged, new BitArray(true, false, false, true, true)));
+
+        assertArrayEquals(new boolean[] { true, false }, bits(first.results.get(0).getBits().get()));
+        assertArrayEquals(new boolean[] { false, true, true }, bits(second.results.get(0).getBits().get()));
+
+        // the planner uses the same object for results and failures
+        @SuppressWarnings("unchecked")
+        ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback =
+                (ModbusFailureCallback<ModbusReadRequestBlueprint>) callback;
+        failureCallback.handle(new AsyncModbusFailure<>(merged, new Exception("timeout")));
+        assertSame(firstRequest, first.failures.get(0).getRequest());
+        assertSame(secondRequest, second.failures.get(0).getRequest());
+    }
+
+    @Test
+    public void testUnregisterReplans() {
+        PollTask pollTask = mock(PollTask.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(pollTask);
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 2);
+        Recorder recorder = new Recorder();
+
+        ModbusPollPlanner.Poll poll = planner.registerRegularPoll(
+                request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4), 1000, recorder, recorder);
+        planner.registerRegularPoll(request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 4, 4), 1000, recorder,
+                recorder);
+        assertTrue(planner.unregisterRegularPoll(poll));
+        assertFalse(planner.unregisterRegularPoll(poll));
+        assertEquals(1, planner.getStatistics().polls());
+
+        planner.close();
+        assertEquals(0, planner.getStatistics().reads());
+        verify(comms, times(3)).unregisterRegularPoll(pollTask);
+    }
+}
@@ -13,12 +13,14 @@
 package org.openhab.binding.mqtt.generic;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -85,6 +87,11 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
     private Map<String, @Nullable ChannelState> availabilityStates = new ConcurrentHashMap<>();
     private AvailabilityMode availabilityMode = AvailabilityMode.ALL;
 
+    // Micro-batching of channel state updates, disabled if the window is 0
+    private volatile int updateBatchWindow = 0;
+    private final Map<ChannelUID, State> pendingStates = new LinkedHashMap<>();
+    private @Nullable ScheduledFuture<?> pendingStatesFuture;
+
     public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout) {
         super(thing);
         this.subscribeTimeout = subscribeTimeout;
@@ -118,6 +125,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
      * You should clean up all resources that depend on a working connection.
      */
     protected void stop() {
+        flushPendingStates();
         clearAllAvailabilityTopics();
         resetMessageReceived();
     }
@@ -242,6 +250,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
 
     @Override
     public void dispose() {
+        discardPendingStates();
         stop();
         try {
             unsubscribeAll().get(500, TimeUnit.MILLISECONDS);
@@ -264,7 +273,19 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
         if (messageReceived.compareAndSet(false, true)) {
             calculateAndUpdateThingStatus(true);
         }
-        super.updateState(channelUID, value);
+        final int updateBatchWindow = this.updateBatchWindow;
+        if (updateBatchWindow <= 0) {
+            super.updateState(channelUID, value);
+            return;
+        }
+        synchronized (pendingStates) {
+            // Only the latest state of a channel is kept
+            pendingStates.put(channelUID, value);
+            if (pendingStatesFuture == null) {
+                pendingStatesFuture = scheduler.schedule(this::flushPendingStates, updateBatchWindow,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
     @Override
@@ -272,14 +293,64 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
         if (messageReceived.compareAndSet(false, true)) {
             calculateAndUpdateThingStatus(true);
         }
+        // Keep the order of events and the state updates received before
+        flushPendingStates();
         super.triggerChannel(channelUID, event);
     }
 
     @Override
     public void postChannelCommand(ChannelUID channelUID, Command command) {
+        flushPendingStates();
         postCommand(channelUID, command);
     }
 
+    /**
+     * Sets the window in which channel state updates are collected before they are posted together. Within the
+     * window, only the latest state of each channel is posted. Commands and trigger events are never delayed, they
+     * post the collected states first.
+     *
+     * @param updateBatchWindow The window in milliseconds. 0 posts every state update immediately.
+     */
+    protected void setUpdateBatchWindow(int updateBatchWindow) {
+        this.updateBatchWindow = Math.max(0, updateBatchWindow);
+        if (this.updateBatchWindow == 0) {
+            flushPendingStates();
+        }
+    }
+
+    /**
+     * Posts the collected channel state updates.
+     */
+    protected void flushPendingStates() {
+        final Map<ChannelUID, State> states;
+        synchronized (pendingStates) {
+            cancelPendingStatesFuture();
+            if (pendingStates.isEmpty()) {
+                return;
+            }
+            states = new LinkedHashMap<>(pendingStates);
+            pendingStates.clear();
+        }
+        logger.trace("Posting {} collected state updates of thing {}", states.size(), thing.getUID());
+        states.forEach(super::updateState);
+    }
+
+    private void discardPendingStates() {
+        synchronized (pendingStates) {
+            cancelPendingStatesFuture();
+            pendingStates.clear();
+        }
+    }
+
+    private void cancelPendingStatesFuture() {
+        final ScheduledFuture<?> pendingStatesFuture = this.pendingStatesFuture;
+        if (pendingStatesFuture != null) {
+            // Does not interrupt a running flush
+            pendingStatesFuture.cancel(false);
+            this.pendingStatesFuture = null;
+        }
+    }
+
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
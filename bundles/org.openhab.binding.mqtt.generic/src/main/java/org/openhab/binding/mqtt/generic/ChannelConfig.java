@@ -40,6 +40,11 @@ public class ChannelConfig {
      * this.
      */
     public boolean postCommand = false;
+    /**
+     * If true, the state parsed from the last payload is kept and reused when the next payload is byte-identical,
+     * skipping the incoming transformations and the parsing.
+     */
+    public boolean memoize = false;
     public @Nullable Integer qos;
     public boolean retained = false;
     /** If true, the state topic will not update a state, but trigger a channel instead. */
@@ -73,4 +73,9 @@ public class ChannelConfigBuilder {
         config.trigger = trigger;
         return this;
     }
+
+    public ChannelConfigBuilder withMemoize(boolean memoize) {
+        config.memoize = memoize;
+        return this;
+    }
 }
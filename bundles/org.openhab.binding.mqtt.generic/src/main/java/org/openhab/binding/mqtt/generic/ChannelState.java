@@ -14,12 +14,14 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -66,6 +68,31 @@ public class ChannelState implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
+    private volatile @Nullable ParsedPayload lastPayload;
+    private final LongAdder memoHits = new LongAdder();
+    private final LongAdder memoMisses = new LongAdder();
+
+    /**
+     * The state parsed from an incoming payload, kept if the channel is configured to memoize.
+     */
+    private record ParsedPayload(byte[] payload, int hash, State state) {
+    }
+
+    /**
+     * Statistics of the memoized incoming payloads.
+     *
+     * @param hits the number of payloads that were identical to the previous one
+     * @param misses the number of payloads that had to be transformed and parsed
+     */
+    public record MemoStatistics(long hits, long misses) {
+        /**
+         * @return the ratio of hits to all memoizable payloads, 0 if no payload has been received
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
 
     /**
      * Creates a new channel state.
@@ -97,6 +124,7 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public void addTransformation(ChannelStateTransformation transformation) {
         transformationsIn.add(transformation);
+        lastPayload = null;
     }
 
     public void addTransformation(String transformation, TransformationServiceProvider transformationServiceProvider) {
@@ -131,6 +159,7 @@ public class ChannelState implements MqttMessageSubscriber {
     public void clearTransformations() {
         transformationsIn.clear();
         transformationsOut.clear();
+        lastPayload = null;
     }
 
     /**
@@ -145,6 +174,14 @@ public class ChannelState implements MqttMessageSubscriber {
         return cachedValue;
     }
 
+    /**
+     * Returns the statistics of the memoized incoming payloads. Only payloads of channels configured to memoize are
+     * counted.
+     */
+    public MemoStatistics getMemoStatistics() {
+        return new MemoStatistics(memoHits.sum(), memoMisses.sum());
+    }
+
     /**
      * Return the channelUID
      */
@@ -173,32 +210,51 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
-        for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
-            if (transformedValue != null) {
-                strValue = transformedValue;
-            } else {
-                logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue, t.serviceName);
-                receivedOrTimeout();
+        final boolean memoize = config.memoize && !config.trigger;
+        int hash = 0;
+        if (memoize) {
+            // Identical payload: Skip transformations and parsing
+            hash = Arrays.hashCode(payload);
+            final ParsedPayload lastPayload = this.lastPayload;
+            if (lastPayload != null && lastPayload.hash() == hash && Arrays.equals(lastPayload.payload(), payload)) {
+                memoHits.increment();
+                updateState(channelStateUpdateListener, lastPayload.state());
                 return;
             }
+            memoMisses.increment();
         }
 
-        // Is trigger?: Special handling
-        if (config.trigger) {
-            channelStateUpdateListener.triggerChannel(channelUID, strValue);
-            receivedOrTimeout();
-            return;
-        }
-
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+        // Untransformed value: Try to parse the bytes without decoding them
+        Command command = transformationsIn.isEmpty() && !config.trigger ? cachedValue.parsePayload(payload) : null;
         if (command == null) {
-            logger.warn("Incoming payload '{}' on '{}' not supported by type '{}'", strValue, topic,
-                    cachedValue.getClass().getSimpleName());
-            receivedOrTimeout();
-            return;
+            // String value: Apply transformations
+            String strValue = new String(payload, StandardCharsets.UTF_8);
+            for (ChannelStateTransformation t : transformationsIn) {
+                String transformedValue = t.processValue(strValue);
+                if (transformedValue != null) {
+                    strValue = transformedValue;
+                } else {
+                    logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue,
+                            t.serviceName);
+                    receivedOrTimeout();
+                    return;
+                }
+            }
+
+            // Is trigger?: Special handling
+            if (config.trigger) {
+                channelStateUpdateListener.triggerChannel(channelUID, strValue);
+                receivedOrTimeout();
+                return;
+            }
+
+            command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+            if (command == null) {
+                logger.warn("Incoming payload '{}' on '{}' not supported by type '{}'", strValue, topic,
+                        cachedValue.getClass().getSimpleName());
+                receivedOrTimeout();
+                return;
+            }
         }
 
         Type parsedType;
@@ -206,21 +262,27 @@ public class ChannelState implements MqttMessageSubscriber {
         try {
             parsedType = cachedValue.parseMessage(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Command '{}' from channel '{}' not supported by type '{}': {}", strValue, channelUID,
+            logger.warn("Command '{}' from channel '{}' not supported by type '{}': {}", command, channelUID,
                     cachedValue.getClass().getSimpleName(), e.getMessage());
             receivedOrTimeout();
             return;
         }
 
         if (parsedType instanceof State parsedState) {
-            cachedValue.update(parsedState);
+            // Only keep results that a later identical payload would be parsed to as well
+            if (memoize && cachedValue.isStateIndependent(command)) {
+                this.lastPayload = new ParsedPayload(payload.clone(), hash, parsedState);
+            }
+            updateState(channelStateUpdateListener, parsedState);
         } else {
             // things that are only Commands _must_ be posted as a command (like STOP)
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) parsedType);
             receivedOrTimeout();
-            return;
         }
+    }
 
+    private void updateState(ChannelStateUpdateListener channelStateUpdateListener, State parsedState) {
+        cachedValue.update(parsedState);
         State newState = cachedValue.getChannelState();
         // If the user explicitly wants a command sent, not an update, do that. But
         // we have to check that the state is even possible to send as a command
@@ -283,6 +345,12 @@ public class ChannelState implements MqttMessageSubscriber {
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
         cachedValue.resetState();
+        lastPayload = null;
+        if (config.memoize) {
+            MemoStatistics statistics = getMemoStatistics();
+            logger.debug("Channel {} reused {} of {} parsed payloads", this.channelUID, statistics.hits(),
+                    statistics.hits() + statistics.misses());
+        }
     }
 
     private void receivedOrTimeout() {
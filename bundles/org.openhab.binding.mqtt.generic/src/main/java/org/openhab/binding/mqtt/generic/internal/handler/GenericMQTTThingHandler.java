@@ -142,6 +142,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     @Override
     public void initialize() {
         initializeAvailabilityTopicsFromConfig();
+        setUpdateBatchWindow(getConfigAs(GenericThingConfiguration.class).updateBatchWindow);
 
         ThingHandlerCallback callback = getCallback();
         if (callback == null) {
@@ -43,4 +43,9 @@ public class GenericThingConfiguration {
      * transformation pattern for the availability payload
      */
     public @Nullable String transformationPattern;
+
+    /**
+     * window in milliseconds in which channel state updates are collected and posted together, 0 to disable
+     */
+    public int updateBatchWindow = 0;
 }
@@ -119,6 +119,18 @@ public class ColorValue extends Value {
         }
     }
 
+    @Override
+    public boolean isStateIndependent(Command command) {
+        // Only a full color replaces the current state, everything else keeps hue and saturation
+        if (command instanceof HSBType) {
+            return true;
+        } else if (command instanceof StringType) {
+            final String updatedValue = command.toString();
+            return !onValue.equals(updatedValue) && !offValue.equals(updatedValue);
+        }
+        return false;
+    }
+
     /**
      * Converts the color state to a string.
      *
@@ -47,6 +47,8 @@ import org.slf4j.LoggerFactory;
 public class NumberValue extends Value {
     private static final String NAN = "NaN";
     private static final String NEGATIVE_NAN = "-NaN";
+    // Plain numbers with up to this many digits fit into a long
+    private static final int MAX_PAYLOAD_DIGITS = 18;
 
     private final Logger logger = LoggerFactory.getLogger(NumberValue.class);
     private final @Nullable BigDecimal min;
@@ -135,6 +137,44 @@ public class NumberValue extends Value {
         return parseCommand(command);
     }
 
+    /**
+     * Parses plain decimal numbers like "-12" or "21.5". Numbers with a unit, an exponent or more than
+     * {@value #MAX_PAYLOAD_DIGITS} digits are left to the string based parsing.
+     */
+    @Override
+    public @Nullable Command parsePayload(byte[] payload) {
+        int length = payload.length;
+        int start = length > 0 && payload[0] == '-' ? 1 : 0;
+        if (start == length || length - start > MAX_PAYLOAD_DIGITS + 1) {
+            return null;
+        }
+        long unscaled = 0;
+        int scale = -1;
+        for (int i = start; i < length; i++) {
+            byte b = payload[i];
+            if (b >= '0' && b <= '9') {
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0 && i > start && i < length - 1) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (scale < 0 && length - start > MAX_PAYLOAD_DIGITS) {
+            return null;
+        }
+        return new DecimalType(BigDecimal.valueOf(start == 1 ? -unscaled : unscaled, Math.max(scale, 0)));
+    }
+
+    @Override
+    public boolean isStateIndependent(Command command) {
+        // UP and DOWN change the current value by step
+        return super.isStateIndependent(command) && !(command instanceof UpDownType);
+    }
+
     private BigDecimal getOldValue() {
         BigDecimal val = BigDecimal.ZERO;
         if (state instanceof DecimalType decimalCommand) {
@@ -14,6 +14,8 @@ package org.openhab.binding.mqtt.generic.values;
 
 import static java.util.function.Predicate.not;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,10 +37,15 @@ import org.openhab.core.types.CommandOption;
  */
 @NonNullByDefault
 public class OnOffValue extends Value {
+    private static final byte[] ON_PAYLOAD = OnOffType.ON.name().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OFF_PAYLOAD = OnOffType.OFF.name().getBytes(StandardCharsets.UTF_8);
+
     private final Set<String> onStates;
     private final Set<String> offStates;
     private final String onCommand;
     private final String offCommand;
+    private final byte[][] onPayloads;
+    private final byte[][] offPayloads;
 
     /**
      * Creates a switch On/Off type, that accepts "ON" for on and "OFF" for off.
@@ -93,6 +100,12 @@ public class OnOffValue extends Value {
         this.offStates = Stream.of(offStates).filter(not(String::isBlank)).collect(Collectors.toSet());
         this.onCommand = onCommand;
         this.offCommand = offCommand;
+        this.onPayloads = toPayloads(this.onStates);
+        this.offPayloads = toPayloads(this.offStates);
+    }
+
+    private static byte[][] toPayloads(Set<String> states) {
+        return states.stream().map(state -> state.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
     }
 
     @Override
@@ -111,6 +124,33 @@ public class OnOffValue extends Value {
         }
     }
 
+    /**
+     * Parses "ON", "OFF" and the configured on and off states. Other payloads are left to the string based parsing.
+     */
+    @Override
+    public @Nullable Command parsePayload(byte[] payload) {
+        // Same precedence as the string based parsing: OnOffType first, then the on states and the off states
+        if (Arrays.equals(payload, ON_PAYLOAD)) {
+            return OnOffType.ON;
+        } else if (Arrays.equals(payload, OFF_PAYLOAD)) {
+            return OnOffType.OFF;
+        } else if (contains(onPayloads, payload)) {
+            return OnOffType.ON;
+        } else if (contains(offPayloads, payload)) {
+            return OnOffType.OFF;
+        }
+        return null;
+    }
+
+    private static boolean contains(byte[][] payloads, byte[] payload) {
+        for (byte[] candidate : payloads) {
+            if (Arrays.equals(candidate, payload)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String getMQTTpublishValue(Command command, @Nullable String pattern) {
         String formatPattern = pattern;
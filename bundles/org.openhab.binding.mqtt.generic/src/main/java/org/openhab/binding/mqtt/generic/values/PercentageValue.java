@@ -149,6 +149,13 @@ public class PercentageValue extends Value {
         return new DecimalType(value).format(formatPattern);
     }
 
+    @Override
+    public boolean isStateIndependent(Command command) {
+        // UP and DOWN change the current value by step, a quantity that is not a percentage keeps it
+        return super.isStateIndependent(command)
+                && !(command instanceof UpDownType || command instanceof QuantityType<?>);
+    }
+
     @Override
     public StateDescriptionFragmentBuilder createStateDescription(boolean readOnly) {
         return super.createStateDescription(readOnly).withMaximum(HUNDRED).withMinimum(BigDecimal.ZERO).withStep(step)
@@ -154,6 +154,29 @@ public abstract class Value {
         return parseCommand(command);
     }
 
+    /**
+     * Parses an untransformed MQTT payload directly from its bytes, without decoding it to a String first. This is a
+     * fast path for frequent and simple payloads. The result is passed to {@link #parseMessage(Command)} like the
+     * result of the string based parsing would be. The default implementation does not support any payload.
+     *
+     * @param payload The raw payload.
+     * @return The command the payload is parsed to by the string based parsing, or null if the payload needs to be
+     *         parsed as a String.
+     */
+    public @Nullable Command parsePayload(byte[] payload) {
+        return null;
+    }
+
+    /**
+     * Returns true if {@link #parseMessage(Command)} maps the given command to a State that does not depend on the
+     * current state of this value, so that the result may be reused for an identical incoming message.
+     *
+     * @param command The parsed command of an incoming message.
+     */
+    public boolean isStateIndependent(Command command) {
+        return command instanceof State;
+    }
+
     /**
      * Updates the internal value state with the given binary payload.
      *
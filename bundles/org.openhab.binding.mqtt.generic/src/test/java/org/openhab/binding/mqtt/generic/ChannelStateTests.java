@@ -177,6 +177,53 @@ public class ChannelStateTests {
         verify(channelStateUpdateListenerMock, times(3)).updateChannelState(eq(channelUIDMock), any());
     }
 
+    @Test
+    public void receiveMemoizedDecimalTest() {
+        ChannelConfig config = ChannelConfigBuilder.create("state", "command").withMemoize(true).build();
+        NumberValue value = spy(new NumberValue(null, null, new BigDecimal(10), null));
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, value, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+        verify(value, times(1)).parseMessage(any());
+
+        // A relative value is never reused
+        c.processMessage("state", "INCREASE".getBytes());
+        c.processMessage("state", "INCREASE".getBytes());
+        assertThat(value.getChannelState().toString(), is("35"));
+
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+
+        verify(value, times(3)).parseMessage(any());
+        verify(channelStateUpdateListenerMock, times(5)).updateChannelState(eq(channelUIDMock), any());
+        assertThat(c.getMemoStatistics().hits(), is(2L));
+        assertThat(c.getMemoStatistics().misses(), is(3L));
+        assertThat(c.getMemoStatistics().hitRate(), is(closeTo(0.4, 0.001)));
+    }
+
+    @Test
+    public void receiveMemoizedColorTest() {
+        ChannelConfig config = ChannelConfigBuilder.create("state", "command").withMemoize(true).build();
+        ColorValue value = spy(new ColorValue(ColorMode.HSB, "FON", "FOFF", 10));
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, value, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "12,18,100".getBytes());
+        c.processMessage("state", "12,18,100".getBytes());
+        assertThat(value.getChannelState().toString(), is("12,18,100"));
+        verify(value, times(1)).parseMessage(any());
+
+        // The brightness of ON depends on the current state
+        c.processMessage("state", "FOFF".getBytes());
+        c.processMessage("state", "ON".getBytes());
+        c.processMessage("state", "ON".getBytes());
+        assertThat(value.getChannelState().toString(), is("12,18,10"));
+        verify(value, times(4)).parseMessage(any());
+    }
+
     @Test
     public void receiveDecimalFractionalTest() {
         NumberValue value = new NumberValue(null, null, new BigDecimal(10.5), null);
@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.openhab.binding.mqtt.generic.internal.handler.ThingChannelConstants.*;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -196,6 +197,28 @@ public class GenericThingHandlerTests {
         assertThat(textValue.getChannelState().toString(), is("UPDATE"));
     }
 
+    @Test
+    public void processMessagesBatched() {
+        when(thingMock.getConfiguration()).thenReturn(new Configuration(Map.of("updateBatchWindow", 100)));
+        TextValue textValue = new TextValue();
+        ChannelState channelConfig = spy(
+                new ChannelState(ChannelConfigBuilder.create("test/state", "test/state/set").build(), TEXT_CHANNEL_UID,
+                        textValue, thingHandler));
+        doReturn(channelConfig).when(thingHandler).createChannelState(any(), any(), any());
+        thingHandler.initialize();
+
+        channelConfig.processMessage("test/state", "FIRST".getBytes());
+        channelConfig.processMessage("test/state", "SECOND".getBytes());
+        verify(callbackMock, never()).stateUpdated(eq(TEXT_CHANNEL_UID), any());
+        assertThat(textValue.getChannelState().toString(), is("SECOND"));
+
+        // Only the latest state is posted at the end of the window
+        verify(callbackMock, timeout(1000)).stateUpdated(eq(TEXT_CHANNEL_UID),
+                argThat(arg -> "SECOND".equals(arg.toString())));
+        verify(callbackMock, never()).stateUpdated(eq(TEXT_CHANNEL_UID),
+                argThat(arg -> "FIRST".equals(arg.toString())));
+    }
+
     @Test
     public void handleBridgeStatusChange() {
         Configuration config = new Configuration();
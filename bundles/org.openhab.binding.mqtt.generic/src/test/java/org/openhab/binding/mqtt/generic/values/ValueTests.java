@@ -152,6 +152,18 @@ public class ValueTests {
         assertThat(v.parseCommand(new StringType("JAMMED")), is(OnOffType.OFF));
     }
 
+    @Test
+    public void onoffPayload() {
+        OnOffValue v = new OnOffValue(new String[] { "LOCKED", "OFF" }, new String[] { "UNLOCKED" }, "LOCK", "UNLOCK");
+
+        assertThat(v.parsePayload("ON".getBytes()), is(OnOffType.ON));
+        assertThat(v.parsePayload("OFF".getBytes()), is(OnOffType.OFF));
+        assertThat(v.parsePayload("LOCKED".getBytes()), is(OnOffType.ON));
+        assertThat(v.parsePayload("UNLOCKED".getBytes()), is(OnOffType.OFF));
+        assertNull(v.parsePayload("on".getBytes()));
+        assertNull(v.parsePayload("JAMMED".getBytes()));
+    }
+
     @Test
     public void openCloseUpdate() {
         OpenCloseValue v = new OpenCloseValue("fancyON", "fancyOff");
@@ -200,6 +212,20 @@ public class ValueTests {
         assertThat(v.parseMessage(new StringType("")), is(UnDefType.NULL));
     }
 
+    @Test
+    public void numberPayload() {
+        NumberValue v = new NumberValue(null, null, null, null);
+
+        // The fast path must return the same as the string based parsing
+        for (String str : new String[] { "15", "-12", "21.5", "0.001", "007", "-0", "123456789012345678" }) {
+            assertThat(v.parsePayload(str.getBytes()), is(p(v, str)));
+        }
+        for (String str : new String[] { "", "-", "1.", ".5", "1.2.3", "1e3", "15 W", "NaN", "INCREASE",
+                "1234567890123456789" }) {
+            assertNull(v.parsePayload(str.getBytes()));
+        }
+    }
+
     @Test
     public void numberUpdateMireds() {
         NumberValue v = new NumberValue(null, null, new BigDecimal(10), Units.MIRED);
@@ -13,9 +13,12 @@
 package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -62,6 +65,8 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @Nullable ComponentDiscovered discoveredListener;
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
+    // Last processed config per topic, components are only created for changed configs
+    private final Map<String, byte[]> configPerTopic = new ConcurrentHashMap<>();
 
     /**
      * Implement this to get notified of new components
@@ -94,6 +99,12 @@ public class DiscoverComponents implements MqttMessageSubscriber {
             return;
         }
 
+        final byte[] previousPayload = configPerTopic.put(topic, payload);
+        if (previousPayload != null && Arrays.equals(previousPayload, payload)) {
+            logger.trace("HomeAssistant config on topic {} did not change, skipping it", topic);
+            return;
+        }
+
         HaID haID = new HaID(topic);
         String config = new String(payload);
         AbstractComponent<?> component = null;
@@ -147,6 +158,8 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         this.discoverTime = discoverTime;
         this.discoveredListener = componentsDiscoveredListener;
         this.connectionRef = new WeakReference<>(connection);
+        // The retained configs are received again, every one of them has to be processed
+        configPerTopic.clear();
 
         // Subscribe to the wildcard topic and start receive MQTT retained topics
         this.topics.stream().map(t -> connection.subscribe(t, this)).collect(FutureCollector.allOf())
@@ -13,8 +13,8 @@
 package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -24,8 +24,10 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -43,6 +45,7 @@ import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfiguratio
 import org.openhab.binding.mqtt.homeassistant.internal.config.ChannelConfigurationTypeAdapterFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.config.dto.AbstractChannelConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.exception.ConfigurationException;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.config.discovery.DiscoveryResult;
@@ -67,6 +70,11 @@ import com.google.gson.GsonBuilder;
  * The {@link HomeAssistantDiscovery} is responsible for discovering device nodes that follow the
  * Home Assistant MQTT discovery convention (https://www.home-assistant.io/docs/mqtt/discovery/).
  *
+ * <p>
+ * Config payloads are parsed in parallel. The last processed payload is kept per topic, so that unchanged payloads
+ * (e.g. retained configs that are republished) are not parsed again. The result of a thing is
+ * published as soon as no further component of it has been received for two seconds.
+ *
  * @author David Graeff - Initial contribution
  */
 @Component(service = DiscoveryService.class, configurationPid = "discovery.mqttha", property = Constants.SERVICE_PID
@@ -79,10 +87,33 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
     protected final Map<String, DiscoveryResult> results = new ConcurrentHashMap<>();
+    protected final Map<String, byte[]> configPerTopic = new ConcurrentHashMap<>();
 
-    private @Nullable ScheduledFuture<?> future;
+    // Guards the maps above (except configPerTopic) and the pending publications
+    private final Object discoveryLock = new Object();
+    private final Map<String, ScheduledFuture<?>> publishFutures = new HashMap<>();
+    private final ExecutorService parser = ThreadPoolManager.getPool(PARSER_POOL_NAME);
     private final Gson gson;
 
+    // Timing of the discovery phase, from the first parsed config until all results are published
+    private long phaseStart = 0;
+    private int phaseThings = 0;
+    private final LongAdder configsReceived = new LongAdder();
+    private final LongAdder configsSkipped = new LongAdder();
+    private final LongAdder configsFailed = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+
+    /**
+     * Statistics of the processed config payloads.
+     *
+     * @param received the number of received config payloads
+     * @param skipped the number of payloads that were skipped because they did not change
+     * @param failed the number of payloads that could not be parsed
+     * @param parseTime the time spent parsing, summed over all parser threads
+     */
+    public record DiscoveryStatistics(long received, long skipped, long failed, Duration parseTime) {
+    }
+
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
         HA_COMP_TO_NAME.put("alarm_control_panel", "Alarm Control Panel");
@@ -100,6 +131,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     static final String BASE_TOPIC = "homeassistant";
     static final String BIRTH_TOPIC = "homeassistant/status";
     static final String ONLINE_STATUS = "online";
+    static final String PARSER_POOL_NAME = "mqtt-homeassistant-discovery";
+    static final long PUBLISH_DELAY_SECONDS = 2;
 
     @NonNullByDefault({})
     protected MqttChannelTypeProvider typeProvider;
@@ -175,6 +208,14 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         return summary.toString();
     }
 
+    /**
+     * Returns the statistics of the processed config payloads.
+     */
+    public DiscoveryStatistics getStatistics() {
+        return new DiscoveryStatistics(configsReceived.sum(), configsSkipped.sum(), configsFailed.sum(),
+                Duration.ofNanos(parseNanos.sum()));
+    }
+
     @Override
     public void receivedMessage(ThingUID connectionBridge, MqttBrokerConnection connection, String topic,
             byte[] payload) {
@@ -187,23 +228,33 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        configsReceived.increment();
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
+        // Skip payloads that have already been processed, e.g. retained configs that are republished
+        final byte[] previousPayload = configPerTopic.put(topic, payload);
+        if (previousPayload != null && Arrays.equals(previousPayload, payload)) {
+            configsSkipped.increment();
+            logger.trace("HomeAssistant config on topic {} did not change, skipping it", topic);
+            return;
         }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
+        parser.execute(() -> processConfig(connectionBridge, topic, payload));
+    }
+
+    private void processConfig(ThingUID connectionBridge, String topic, byte[] payload) {
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
         // easily recognize object capabilities.
         HaID haID = new HaID(topic);
 
         try {
-            AbstractChannelConfiguration config = AbstractChannelConfiguration
-                    .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+            final long parseStart = System.nanoTime();
+            final AbstractChannelConfiguration config;
+            try {
+                config = AbstractChannelConfiguration.fromString(new String(payload, StandardCharsets.UTF_8), gson);
+            } finally {
+                parseNanos.add(System.nanoTime() - parseStart);
+            }
 
             final String thingID = config.getThingId(haID.objectID);
 
@@ -212,57 +263,82 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
             final ThingUID thingUID = new ThingUID(typeID, connectionBridge, thingID);
 
-            thingIDPerTopic.put(topic, thingUID);
-
-            // We need to keep track of already found component topics for a specific thing
-            final List<HaID> components;
-            {
-                Set<HaID> componentsUnordered = componentsPerThingID.computeIfAbsent(thingID,
-                        key -> ConcurrentHashMap.newKeySet());
-
-                // Invariant. For compiler, computeIfAbsent above returns always
-                // non-null
-                Objects.requireNonNull(componentsUnordered);
-                componentsUnordered.add(haID);
+            synchronized (discoveryLock) {
+                // A newer payload of this topic has been received while parsing, it will replace this one
+                if (!Arrays.equals(payload, configPerTopic.get(topic))) {
+                    return;
+                }
+                if (phaseStart == 0) {
+                    phaseStart = System.nanoTime();
+                }
 
-                components = componentsUnordered.stream().collect(Collectors.toList());
-                // We sort the components for consistent jsondb serialization order of 'topics' thing property
-                // Sorting key is HaID::toString, i.e. using the full topic string
-                components.sort(Comparator.comparing(HaID::toString));
-            }
+                thingIDPerTopic.put(topic, thingUID);
 
-            final String componentNames = getComponentNamesSummary(
-                    components.stream().map(id -> id.component).map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)));
+                // We need to keep track of already found component topics for a specific thing
+                final List<HaID> components;
+                {
+                    Set<HaID> componentsUnordered = componentsPerThingID.computeIfAbsent(thingID,
+                            key -> ConcurrentHashMap.newKeySet());
 
-            final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+                    // Invariant. For compiler, computeIfAbsent above returns always
+                    // non-null
+                    Objects.requireNonNull(componentsUnordered);
+                    componentsUnordered.add(haID);
 
-            Map<String, Object> properties = new HashMap<>();
-            HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
-            properties = handlerConfig.appendToProperties(properties);
-            properties = config.appendToProperties(properties);
-            properties.put("deviceId", thingID);
+                    components = componentsUnordered.stream().collect(Collectors.toList());
+                    // We sort the components for consistent jsondb serialization order of 'topics' thing property
+                    // Sorting key is HaID::toString, i.e. using the full topic string
+                    components.sort(Comparator.comparing(HaID::toString));
+                }
 
-            // Because we need the new properties map with the updated "components" list
-            results.put(thingUID.getAsString(),
-                    DiscoveryResultBuilder.create(thingUID).withProperties(properties)
-                            .withRepresentationProperty("deviceId").withBridge(connectionBridge)
-                            .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+                final String componentNames = getComponentNamesSummary(
+                        components.stream().map(id -> id.component).map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)));
+
+                final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+
+                Map<String, Object> properties = new HashMap<>();
+                HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
+                properties = handlerConfig.appendToProperties(properties);
+                properties = config.appendToProperties(properties);
+                properties.put("deviceId", thingID);
+
+                // Because we need the new properties map with the updated "components" list
+                final String resultID = thingUID.getAsString();
+                results.put(resultID,
+                        DiscoveryResultBuilder.create(thingUID).withProperties(properties)
+                                .withRepresentationProperty("deviceId").withBridge(connectionBridge)
+                                .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+
+                // Reset the found-component timer of this thing.
+                // We will collect components for the thing label description for another 2 seconds.
+                final ScheduledFuture<?> future = publishFutures.put(resultID,
+                        scheduler.schedule(() -> publishResult(resultID), PUBLISH_DELAY_SECONDS, TimeUnit.SECONDS));
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
         } catch (ConfigurationException e) {
+            configsFailed.increment();
             logger.warn("HomeAssistant discover error: invalid configuration of thing {} component {}: {}",
                     haID.objectID, haID.component, e.getMessage());
         } catch (Exception e) {
+            configsFailed.increment();
             logger.warn("HomeAssistant discover error: {}", e.getMessage());
         }
     }
 
     @Override
     protected void startScan() {
+        // A scan removes the results that are not found again, so every config has to be processed
+        configPerTopic.clear();
         super.startScan();
         triggerDeviceDiscovery();
     }
 
     @Override
     protected void startBackgroundDiscovery() {
+        // The background discovery removes the results restored after a restart, so every config has to be processed
+        configPerTopic.clear();
         super.startBackgroundDiscovery();
         triggerDeviceDiscovery();
     }
@@ -275,19 +351,32 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         getDiscoveryService().publish(BIRTH_TOPIC, ONLINE_STATUS.getBytes(), 1, false);
     }
 
-    protected void publishResults() {
-        Collection<DiscoveryResult> localResults;
+    protected void publishResult(String resultID) {
+        final DiscoveryResult result;
+        synchronized (discoveryLock) {
+            publishFutures.remove(resultID);
+            result = results.remove(resultID);
+            if (result == null) {
+                return;
+            }
+            phaseThings++;
+            if (publishFutures.isEmpty() && phaseStart != 0) {
+                // Nothing pending anymore, the discovery phase is complete
+                DiscoveryStatistics statistics = getStatistics();
+                logger.debug(
+                        "HomeAssistant discovery published {} things in {} ms (parsing {} ms, {}/{} configs unchanged)",
+                        phaseThings, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - phaseStart),
+                        statistics.parseTime().toMillis(), statistics.skipped(), statistics.received());
+                phaseStart = 0;
+                phaseThings = 0;
+            }
+        }
 
-        localResults = new ArrayList<>(results.values());
-        results.clear();
-        componentsPerThingID.clear();
-        for (DiscoveryResult result : localResults) {
-            final ThingTypeUID typeID = result.getThingTypeUID();
-            ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
-            typeProvider.setThingTypeIfAbsent(typeID, type);
+        final ThingTypeUID typeID = result.getThingTypeUID();
+        ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
+        typeProvider.setThingTypeIfAbsent(typeID, type);
 
-            thingDiscovered(result);
-        }
+        thingDiscovered(result);
     }
 
     @Override
@@ -295,7 +384,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
+        configPerTopic.remove(topic);
+        synchronized (discoveryLock) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             if (thingUID != null) {
                 final String thingID = thingUID.getId();
@@ -305,6 +395,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
                 Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
                 components.remove(haID);
                 if (components.isEmpty()) {
+                    componentsPerThingID.remove(thingID);
                     thingRemoved(thingUID);
                 }
             }
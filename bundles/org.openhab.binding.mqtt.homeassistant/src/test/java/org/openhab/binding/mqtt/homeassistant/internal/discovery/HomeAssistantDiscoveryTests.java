@@ -93,6 +93,28 @@ public class HomeAssistantDiscoveryTests extends AbstractHomeAssistantTests {
                 "climate/0x847127fffe11dd6a_climate_zigbee2mqtt", "switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt"));
     }
 
+    @Test
+    public void testUnchangedConfigIsSkipped() throws Exception {
+        var discoveryListener = new LatchDiscoveryListener();
+        var latch = discoveryListener.createWaitForThingsDiscoveredLatch(1);
+        byte[] config = getResourceAsByteArray("component/configTS0601AutoLock.json");
+
+        // When the same config is received twice
+        discovery.addDiscoveryListener(discoveryListener);
+        discovery.receivedMessage(HA_UID, bridgeConnection,
+                "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config", config);
+        discovery.receivedMessage(HA_UID, bridgeConnection,
+                "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config", config);
+
+        // Then it is parsed and published once
+        assert latch.await(3, TimeUnit.SECONDS);
+        assertThat(discoveryListener.getDiscoveryResults().size(), is(1));
+        var statistics = discovery.getStatistics();
+        assertThat(statistics.received(), is(2L));
+        assertThat(statistics.skipped(), is(1L));
+        assertThat(statistics.failed(), is(0L));
+    }
+
     private static class TestHomeAssistantDiscovery extends HomeAssistantDiscovery {
         public TestHomeAssistantDiscovery(MqttChannelTypeProvider typeProvider) {
             super(null);
@@ -66,6 +66,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private final MetadataRegistry metadataRegistry;
+    private final HomekitItemIndex itemIndex;
     private final Storage<Object> storage;
     private final RegistryChangeListener<Metadata> metadataChangeListener;
     private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
@@ -97,6 +98,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.metadataRegistry = metadataRegistry;
         this.storage = storage;
         this.instance = instance;
+        this.itemIndex = new HomekitItemIndex(itemRegistry, metadataRegistry);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices-" + instance, scheduler,
                 Duration.ofMillis(1000), Clock.systemUTC(), this::applyUpdates);
         metadataChangeListener = new RegistryChangeListener<>() {
@@ -105,6 +107,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 final MetadataKey uid = metadata.getUID();
                 if (HomekitAccessoryFactory.METADATA_KEY.equalsIgnoreCase(uid.getNamespace())) {
                     try {
+                        metadataChanged(uid.getItemName());
                         markDirty(itemRegistry.getItem(uid.getItemName()));
                     } catch (ItemNotFoundException e) {
                         logger.trace("Could not find item for metadata {}", metadata);
@@ -117,6 +120,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 final MetadataKey uid = metadata.getUID();
                 if (HomekitAccessoryFactory.METADATA_KEY.equalsIgnoreCase(uid.getNamespace())) {
                     try {
+                        metadataChanged(uid.getItemName());
                         markDirty(itemRegistry.getItem(uid.getItemName()));
                     } catch (ItemNotFoundException e) {
                         logger.trace("Could not find item for metadata {}", metadata);
@@ -132,6 +136,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                         || HomekitAccessoryFactory.METADATA_KEY.equalsIgnoreCase(newUid.getNamespace())) {
                     try {
                         // the item name is same in old and new metadata, so we can take any.
+                        metadataChanged(oldUid.getItemName());
                         markDirty(itemRegistry.getItem(oldUid.getItemName()));
                     } catch (ItemNotFoundException e) {
                         logger.debug("Could not find item for metadata {}", oldMetadata);
@@ -142,8 +147,16 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         itemRegistry.addRegistryChangeListener(this);
         metadataRegistry.addRegistryChangeListener(metadataChangeListener);
         initialiseRevision();
+        long start = System.nanoTime();
+        itemIndex.rebuild();
         boolean changed = false;
-        for (var i : itemRegistry.getItems()) {
+        // only items with HomeKit meta data can be accessories
+        Set<String> taggedItemNames = itemIndex.getTaggedItemNames();
+        for (String name : taggedItemNames) {
+            final @Nullable Item i = itemRegistry.get(name);
+            if (i == null) {
+                continue;
+            }
             String oldValue = knownAccessories.get(i.getName());
             createRootAccessories(i);
             if (accessoryChanged(i.getName(), oldValue)) {
@@ -151,6 +164,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 changed = true;
             }
         }
+        logger.debug("Built HomeKit accessories of {} tagged items in instance {} in {} ms", taggedItemNames.size(),
+                instance, Duration.ofNanos(System.nanoTime() - start).toMillis());
         // order of this conditional is important - checkMissingAccessories has side effects that need to always happen
         if (checkMissingAccessories() || changed) {
             makeNewConfigurationRevision();
@@ -195,7 +210,11 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     private boolean hasHomeKitMetadata(Item item) {
-        return metadataRegistry.get(new MetadataKey(HomekitAccessoryFactory.METADATA_KEY, item.getUID())) != null;
+        return itemIndex.isTagged(item.getName());
+    }
+
+    private synchronized void metadataChanged(String itemName) {
+        itemIndex.update(itemName);
     }
 
     @Override
@@ -223,7 +242,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
          * If findMyAccessoryGroups fails because the accessory group has already been deleted, then we can count on a
          * later update telling us that the accessory group was removed.
          */
-        for (Item accessoryGroup : HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry)) {
+        for (Item accessoryGroup : itemIndex.getAccessoryGroups(item)) {
             pendingUpdates.add(accessoryGroup.getName());
         }
 
@@ -283,6 +302,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     private synchronized void applyUpdates() {
         logger.trace("Apply updates");
+        long start = System.nanoTime();
+        int dirtyCount = pendingUpdates.size();
 
         HomekitRoot bridge = accessoryRegistry.getBridge();
         if (bridge != null) {
@@ -309,6 +330,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             if (bridge != null) {
                 bridge.completeUpdateBatch();
             }
+            logger.debug("Rebuilt {} dirty HomeKit accessories in instance {} in {} ms", dirtyCount, instance,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
         }
     }
 
@@ -436,20 +459,18 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * @param item openHAB item
      */
     private void createRootAccessories(Item item) {
-        final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
-                .getAccessoryTypes(item, metadataRegistry);
+        final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = itemIndex
+                .getAccessoryTypes(item.getName());
         if (accessoryTypes.isEmpty()) {
             return;
         }
 
-        final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
         // Don't create accessories that are sub-accessories of other accessories
-        if (groups.stream().anyMatch(g -> !HomekitAccessoryFactory.getAccessoryTypes(g, metadataRegistry).isEmpty())) {
+        if (!itemIndex.getAccessoryGroups(item).isEmpty()) {
             return;
         }
 
-        final @Nullable Map<String, Object> itemConfiguration = HomekitAccessoryFactory.getItemConfiguration(item,
-                metadataRegistry);
+        final @Nullable Map<String, Object> itemConfiguration = itemIndex.getItemConfiguration(item.getName());
         if (!itemIsForThisBridge(item, itemConfiguration)) {
             return;
         }
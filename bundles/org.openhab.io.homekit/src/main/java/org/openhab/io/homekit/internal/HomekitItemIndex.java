@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.GroupItem;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.Metadata;
+import org.openhab.core.items.MetadataKey;
+import org.openhab.core.items.MetadataRegistry;
+import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
+
+/**
+ * Index of the items with HomeKit meta data and their parsed HomeKit accessory types. The index is built once from
+ * the meta data registry and then updated per item from meta data change events, so that the accessory types of an
+ * item (e.g. of an accessory group with many members) are not parsed again for every lookup.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class HomekitItemIndex {
+    private record IndexEntry(Metadata metadata,
+            List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes) {
+    }
+
+    private final ItemRegistry itemRegistry;
+    private final MetadataRegistry metadataRegistry;
+    private final Map<String, IndexEntry> entries = new HashMap<>();
+
+    HomekitItemIndex(ItemRegistry itemRegistry, MetadataRegistry metadataRegistry) {
+        this.itemRegistry = itemRegistry;
+        this.metadataRegistry = metadataRegistry;
+    }
+
+    /**
+     * Build the index from all HomeKit meta data.
+     */
+    public synchronized void rebuild() {
+        entries.clear();
+        metadataRegistry.stream()
+                .filter(metadata -> HomekitAccessoryFactory.METADATA_KEY.equals(metadata.getUID().getNamespace()))
+                .forEach(this::put);
+    }
+
+    /**
+     * Update the index entry of an item after its HomeKit meta data has changed.
+     *
+     * @param itemName name of the item
+     */
+    public synchronized void update(String itemName) {
+        final @Nullable Metadata metadata = metadataRegistry
+                .get(new MetadataKey(HomekitAccessoryFactory.METADATA_KEY, itemName));
+        if (metadata == null) {
+            entries.remove(itemName);
+        } else {
+            put(metadata);
+        }
+    }
+
+    private void put(Metadata metadata) {
+        entries.put(metadata.getUID().getItemName(),
+                new IndexEntry(metadata, List.copyOf(HomekitAccessoryFactory.getAccessoryTypes(metadata))));
+    }
+
+    /**
+     * @return names of all items with HomeKit meta data
+     */
+    public synchronized Set<String> getTaggedItemNames() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    public synchronized boolean isTagged(String itemName) {
+        return entries.containsKey(itemName);
+    }
+
+    /**
+     * @return HomeKit accessory types of the item, empty if the item has no HomeKit meta data
+     */
+    public synchronized List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> getAccessoryTypes(
+            String itemName) {
+        final @Nullable IndexEntry entry = entries.get(itemName);
+        return entry == null ? List.of() : entry.accessoryTypes();
+    }
+
+    /**
+     * @return configuration of the HomeKit meta data of the item, null if the item has no HomeKit meta data
+     */
+    public synchronized @Nullable Map<String, Object> getItemConfiguration(String itemName) {
+        final @Nullable IndexEntry entry = entries.get(itemName);
+        return entry == null ? null : entry.metadata().getConfiguration();
+    }
+
+    /**
+     * Return the groups of an item which are HomeKit accessories. Same as
+     * {@link HomekitAccessoryFactory#getAccessoryGroups}, but only groups with HomeKit accessory types are looked up
+     * in the item registry.
+     *
+     * @param item OH item
+     * @return list of relevant group items
+     */
+    public List<GroupItem> getAccessoryGroups(Item item) {
+        return item.getGroupNames().stream().filter(name -> !getAccessoryTypes(name).isEmpty())
+                .map(itemRegistry::get).filter(GroupItem.class::isInstance).map(GroupItem.class::cast)
+                .collect(Collectors.toList());
+    }
+}
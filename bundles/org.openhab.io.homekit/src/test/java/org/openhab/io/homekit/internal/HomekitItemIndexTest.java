@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.GroupItem;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.Metadata;
+import org.openhab.core.items.MetadataKey;
+import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.SwitchItem;
+
+/**
+ * Tests the {@link HomekitItemIndex}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitItemIndexTest {
+    private final Map<MetadataKey, Metadata> metadata = new HashMap<>();
+    private final ItemRegistry itemRegistry = mock(ItemRegistry.class);
+    private final MetadataRegistry metadataRegistry = mock(MetadataRegistry.class);
+    private final HomekitItemIndex index = new HomekitItemIndex(itemRegistry, metadataRegistry);
+
+    @BeforeEach
+    public void setUp() {
+        when(metadataRegistry.stream()).thenAnswer(invocation -> metadata.values().stream());
+        when(metadataRegistry.get(any())).thenAnswer(invocation -> metadata.get(invocation.getArgument(0)));
+    }
+
+    private void putMetadata(String namespace, String itemName, String value) {
+        MetadataKey key = new MetadataKey(namespace, itemName);
+        metadata.put(key, new Metadata(key, value, Map.of("configKey", "configValue")));
+    }
+
+    @Test
+    public void rebuildIndexesHomekitMetadataOnly() {
+        putMetadata("homekit", "light", "Lighting");
+        putMetadata("homekit", "lightSwitch", "Lighting.OnState");
+        putMetadata("HomeKit", "otherCase", "Switchable");
+        putMetadata("alexa", "alexaOnly", "Light");
+
+        index.rebuild();
+
+        assertThat(index.getTaggedItemNames(), is(Set.of("light", "lightSwitch")));
+        assertThat(index.isTagged("otherCase"), is(false));
+        assertThat(index.getAccessoryTypes("light"),
+                is(List.of(new SimpleEntry<>(HomekitAccessoryType.LIGHTBULB, HomekitCharacteristicType.EMPTY))));
+        assertThat(index.getAccessoryTypes("lightSwitch"),
+                is(List.of(new SimpleEntry<>(HomekitAccessoryType.LIGHTBULB, HomekitCharacteristicType.ON_STATE))));
+        assertThat(index.getItemConfiguration("light"), is(Map.of("configKey", "configValue")));
+        assertThat(index.getItemConfiguration("alexaOnly"), is(nullValue()));
+    }
+
+    @Test
+    public void rebuildDropsRemovedItems() {
+        putMetadata("homekit", "light", "Lighting");
+        index.rebuild();
+        metadata.clear();
+
+        index.rebuild();
+
+        assertThat(index.getTaggedItemNames().isEmpty(), is(true));
+    }
+
+    @Test
+    public void updateReplacesTheEntryOfTheItem() {
+        putMetadata("homekit", "light", "Lighting");
+        index.rebuild();
+
+        putMetadata("homekit", "light", "Switchable");
+        putMetadata("homekit", "newSwitch", "Switchable");
+        index.update("light");
+
+        assertThat(index.getAccessoryTypes("light"),
+                is(List.of(new SimpleEntry<>(HomekitAccessoryType.SWITCH, HomekitCharacteristicType.EMPTY))));
+        // other items are only updated on their own change event
+        assertThat(index.isTagged("newSwitch"), is(false));
+    }
+
+    @Test
+    public void updateRemovesTheEntryIfTheMetadataHasBeenRemoved() {
+        putMetadata("homekit", "light", "Lighting");
+        index.rebuild();
+
+        metadata.clear();
+        index.update("light");
+
+        assertThat(index.isTagged("light"), is(false));
+        assertThat(index.getAccessoryTypes("light").isEmpty(), is(true));
+        assertThat(index.getItemConfiguration("light"), is(nullValue()));
+    }
+
+    @Test
+    public void accessoryGroupsAreGroupsWithAccessoryTypes() {
+        GroupItem accessoryGroup = new GroupItem("accessoryGroup");
+        when(itemRegistry.get("accessoryGroup")).thenReturn(accessoryGroup);
+        putMetadata("homekit", "accessoryGroup", "Lighting");
+        putMetadata("homekit", "light", "OnState");
+        // a group with other meta data is neither an accessory nor looked up
+        putMetadata("alexa", "otherGroup", "Light");
+        index.rebuild();
+
+        SwitchItem item = new SwitchItem("light");
+        item.addGroupNames("accessoryGroup", "otherGroup");
+
+        assertThat(index.getAccessoryGroups(item), is(List.of(accessoryGroup)));
+        verify(itemRegistry, never()).get("otherGroup");
+    }
+}
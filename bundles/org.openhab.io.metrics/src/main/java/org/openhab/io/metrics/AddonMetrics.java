@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * The {@link AddonMetrics} service lets add-ons publish meters for their hot paths (persistence store and query
+ * times, transformation latencies and the depth of write-behind queues) to the openHAB meter registry, so that they
+ * are exported together with the core metrics.
+ *
+ * Item names and transformation patterns are unbounded, so the number of distinct values of these tags is limited
+ * per service. Once the limit is reached, further values are reported as {@value #OTHER_TAG_VALUE}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(configurationPid = "org.openhab.metrics", service = AddonMetrics.class)
+public class AddonMetrics {
+    public static final String PERSISTENCE_TIMER = "openhab.persistence.duration";
+    public static final String TRANSFORMATION_TIMER = "openhab.transformation.duration";
+    public static final String QUEUE_DEPTH_GAUGE = "openhab.addon.queue.depth";
+
+    public static final String OPERATION_STORE = "store";
+    public static final String OPERATION_QUERY = "query";
+
+    static final String OTHER_TAG_VALUE = "_other";
+    private static final String TAG_SERVICE = "service";
+    private static final String TAG_OPERATION = "operation";
+    private static final String TAG_ITEM = "item";
+    private static final String TAG_PATTERN = "pattern";
+    private static final String TAG_QUEUE = "queue";
+
+    private final Logger logger = LoggerFactory.getLogger(AddonMetrics.class);
+
+    private final CompositeMeterRegistry meterRegistry;
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> tagValuesPerService = new ConcurrentHashMap<>();
+    private volatile int maxTagValues;
+
+    private record MeterKey(String name, String service, String operation, String subject) {
+    }
+
+    @Activate
+    public AddonMetrics(final @Reference MeterRegistryProvider meterRegistryProvider,
+            Map<String, @Nullable Object> configuration) {
+        this.meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        modified(configuration);
+    }
+
+    @Modified
+    protected void modified(Map<String, @Nullable Object> configuration) {
+        maxTagValues = new Configuration(configuration).as(MetricsConfiguration.class).maxTagValues;
+        logger.debug("Add-on metrics limited to {} item or pattern tag values per service", maxTagValues);
+    }
+
+    /**
+     * Get the timer of a persistence operation.
+     *
+     * @param serviceId the id of the persistence service
+     * @param operation the operation, e.g. {@link #OPERATION_STORE} or {@link #OPERATION_QUERY}
+     * @param itemName the item, or null if the operation is not related to a single item
+     * @return the timer
+     */
+    public Timer persistenceTimer(String serviceId, String operation, @Nullable String itemName) {
+        String item = itemName == null ? "" : limitTagValue(serviceId, itemName);
+        return timers.computeIfAbsent(new MeterKey(PERSISTENCE_TIMER, serviceId, operation, item),
+                key -> Timer.builder(PERSISTENCE_TIMER).description("Duration of persistence service operations")
+                        .tags(Tags.of(TAG_SERVICE, serviceId, TAG_OPERATION, operation, TAG_ITEM, item))
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Get the timer of a transformation. The timer publishes a latency histogram.
+     *
+     * @param serviceId the id of the transformation service, e.g. "MAP"
+     * @param pattern the function or pattern of the transformation
+     * @return the timer
+     */
+    public Timer transformationTimer(String serviceId, String pattern) {
+        String limitedPattern = limitTagValue(serviceId, pattern);
+        return timers.computeIfAbsent(new MeterKey(TRANSFORMATION_TIMER, serviceId, "", limitedPattern),
+                key -> Timer.builder(TRANSFORMATION_TIMER).description("Duration of transformations")
+                        .tags(Tags.of(TAG_SERVICE, serviceId, TAG_PATTERN, limitedPattern))
+                        .publishPercentileHistogram().register(meterRegistry));
+    }
+
+    /**
+     * Register a gauge for the depth of a queue, e.g. a write-behind buffer. The gauge keeps a reference to the
+     * supplier until it is removed with {@link #removeMeter(Meter)}.
+     *
+     * @param serviceId the id of the service owning the queue
+     * @param queue the name of the queue
+     * @param depth supplies the number of queued elements
+     * @return the gauge
+     */
+    public Meter registerQueueDepth(String serviceId, String queue, Supplier<Number> depth) {
+        return Gauge.builder(QUEUE_DEPTH_GAUGE, depth).description("Number of elements waiting in add-on queues")
+                .tags(Tags.of(TAG_SERVICE, serviceId, TAG_QUEUE, queue)).register(meterRegistry);
+    }
+
+    /**
+     * Remove a meter, e.g. when the owning service is deactivated.
+     *
+     * @param meter the meter returned by this service
+     */
+    public void removeMeter(Meter meter) {
+        timers.values().remove(meter);
+        meterRegistry.remove(meter);
+    }
+
+    /**
+     * Remove all meters of a service and forget its tag values.
+     *
+     * @param serviceId the id of the service
+     */
+    public void removeMeters(String serviceId) {
+        timers.entrySet().removeIf(entry -> {
+            if (entry.getKey().service().equals(serviceId)) {
+                meterRegistry.remove(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        meterRegistry.getMeters().stream().filter(meter -> QUEUE_DEPTH_GAUGE.equals(meter.getId().getName()))
+                .filter(meter -> serviceId.equals(meter.getId().getTag(TAG_SERVICE)))
+                .forEach(meterRegistry::remove);
+        tagValuesPerService.remove(serviceId);
+    }
+
+    String limitTagValue(String serviceId, String value) {
+        Set<String> values = Objects.requireNonNull(
+                tagValuesPerService.computeIfAbsent(serviceId, id -> ConcurrentHashMap.newKeySet()));
+        if (values.contains(value)) {
+            return value;
+        }
+        synchronized (values) {
+            if (values.size() >= maxTagValues) {
+                return OTHER_TAG_VALUE;
+            }
+            values.add(value);
+        }
+        return value;
+    }
+}
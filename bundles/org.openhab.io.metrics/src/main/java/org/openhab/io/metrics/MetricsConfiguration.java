@@ -31,11 +31,17 @@ public class MetricsConfiguration {
 
     public boolean jmxMetricsEnabled = false;
 
+    public int prometheusScrapeCacheTtlSeconds = 0;
+
+    public int maxTagValues = 100;
+
     @Override
     public String toString() {
         return "MetricsConfiguration{" + "influxMetricsEnabled=" + influxMetricsEnabled + ", influxURL='" + influxURL
                 + '\'' + ", influxDB='" + influxDB + '\'' + ", influxPassword='" + influxPassword + '\''
                 + ", influxUsername='" + influxUsername + '\'' + ", influxUpdateIntervalInSeconds="
-                + influxUpdateIntervalInSeconds + ", jmxMetricsEnabled=" + jmxMetricsEnabled + '}';
+                + influxUpdateIntervalInSeconds + ", jmxMetricsEnabled=" + jmxMetricsEnabled
+                + ", prometheusScrapeCacheTtlSeconds=" + prometheusScrapeCacheTtlSeconds + ", maxTagValues="
+                + maxTagValues + '}';
     }
 }
@@ -12,15 +12,25 @@
  */
 package org.openhab.io.metrics;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -42,9 +52,11 @@ import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.prometheus.PrometheusConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -68,19 +80,80 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class MetricsRestController {
     private final Logger logger = LoggerFactory.getLogger(MetricsRestController.class);
     public static final String PATH_METRICS = "metrics";
+    private static final String SCRAPE_TIMER = "openhab.metrics.scrape.duration";
     private @Nullable CompositeMeterRegistry meterRegistry;
     private final PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(
             PrometheusConfig.DEFAULT);
     private final Set<MetricsExporter> metricsExporters = new HashSet<>();
     private @Nullable MetricsConfiguration config;
+    private volatile long scrapeCacheTtlMillis;
+    private volatile @Nullable CachedScrape cachedScrape;
+    private final Object scrapeLock = new Object();
+    private @Nullable Timer scrapeTimer;
+    private @Nullable Timer cachedScrapeTimer;
+
+    /**
+     * A rendered scrape
+     */
+    private record CachedScrape(byte[] body, long expiresAt) {
+    }
 
     @GET
     @Path("/prometheus")
     @Produces(MediaType.TEXT_PLAIN)
     @Operation(operationId = "getPrometheusMetrics", summary = "Gets openHAB system and core metrics in a Prometheus compatible format.", responses = {
-            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = String.class))) })
-    public String getPrometheusMetrics() {
-        return prometheusMeterRegistry.scrape();
+            @ApiResponse(responseCode = "200", description = "OK, the metrics are streamed in the Prometheus text format", content = @Content(mediaType = TextFormat.CONTENT_TYPE_004, schema = @Schema(type = "string"))) })
+    public Response getPrometheusMetrics() {
+        return Response.ok(prometheusBody()).header(HttpHeaders.CONTENT_TYPE, TextFormat.CONTENT_TYPE_004).build();
+    }
+
+    /**
+     * @return writes the cached scrape if a cache TTL is configured, otherwise streams a new scrape
+     */
+    StreamingOutput prometheusBody() {
+        return scrapeCacheTtlMillis > 0 ? this::writeCachedScrape : this::writeScrape;
+    }
+
+    private void writeScrape(OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        prometheusMeterRegistry.scrape(writer);
+        writer.flush();
+        recordScrape(scrapeTimer, start);
+    }
+
+    private void writeCachedScrape(OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        CachedScrape cached = cachedScrape;
+        boolean hit = cached != null && cached.expiresAt() > System.currentTimeMillis();
+        if (cached == null || !hit) {
+            cached = renderScrape();
+        }
+        output.write(cached.body());
+        recordScrape(hit ? cachedScrapeTimer : scrapeTimer, start);
+    }
+
+    private CachedScrape renderScrape() throws IOException {
+        // concurrent scrapers wait for a single rendering instead of rendering the same output
+        synchronized (scrapeLock) {
+            CachedScrape cached = cachedScrape;
+            if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+                return cached;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+            prometheusMeterRegistry.scrape(writer);
+            writer.flush();
+            cached = new CachedScrape(buffer.toByteArray(), System.currentTimeMillis() + scrapeCacheTtlMillis);
+            cachedScrape = cached;
+            return cached;
+        }
+    }
+
+    private void recordScrape(@Nullable Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Reference
@@ -101,6 +174,10 @@ public class MetricsRestController {
         logger.info("Metrics service activated, serving the following URL(s): /rest/metrics/prometheus");
         metricsExporters.add(new InfluxMetricsExporter());
         metricsExporters.add(new JmxMetricsExporter());
+        scrapeTimer = Timer.builder(SCRAPE_TIMER).description("Duration of Prometheus scrapes").tag("cached", "false")
+                .register(prometheusMeterRegistry);
+        cachedScrapeTimer = Timer.builder(SCRAPE_TIMER).description("Duration of Prometheus scrapes")
+                .tag("cached", "true").register(prometheusMeterRegistry);
         updateConfig(configuration);
         updateMeterRegistry();
     }
@@ -111,8 +188,11 @@ public class MetricsRestController {
     }
 
     private void updateConfig(@Nullable Map<@Nullable String, @Nullable Object> configuration) {
-        this.config = new Configuration(configuration).as(MetricsConfiguration.class);
-        logger.debug("Configuration: {}", this.config);
+        MetricsConfiguration config = new Configuration(configuration).as(MetricsConfiguration.class);
+        this.config = config;
+        logger.debug("Configuration: {}", config);
+        scrapeCacheTtlMillis = TimeUnit.SECONDS.toMillis(Math.max(0, config.prometheusScrapeCacheTtlSeconds));
+        cachedScrape = null;
         this.metricsExporters.forEach(e -> e.updateExporterState(config));
     }
 
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the {@link AddonMetrics}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class AddonMetricsTest {
+
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+    private @NonNullByDefault({}) AddonMetrics addonMetrics;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry.add(new SimpleMeterRegistry());
+        MeterRegistryProvider meterRegistryProvider = mock(MeterRegistryProvider.class);
+        when(meterRegistryProvider.getOHMeterRegistry()).thenReturn(meterRegistry);
+        addonMetrics = new AddonMetrics(meterRegistryProvider, Map.of("maxTagValues", 2));
+    }
+
+    private int meterCount(String serviceId) {
+        return meterRegistry.find(AddonMetrics.PERSISTENCE_TIMER).tag("service", serviceId).meters().size()
+                + meterRegistry.find(AddonMetrics.QUEUE_DEPTH_GAUGE).tag("service", serviceId).meters().size();
+    }
+
+    @Test
+    public void itemTagValuesAreLimitedPerService() {
+        Timer first = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item1");
+        addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item2");
+        Timer third = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item3");
+        Timer otherService = addonMetrics.persistenceTimer("influxdb", AddonMetrics.OPERATION_STORE, "item3");
+
+        assertThat(first.getId().getTag("item"), is("item1"));
+        assertThat(third.getId().getTag("item"), is(AddonMetrics.OTHER_TAG_VALUE));
+        assertThat(otherService.getId().getTag("item"), is("item3"));
+        // known values are kept after the limit has been reached
+        assertThat(addonMetrics.limitTagValue("jdbc", "item1"), is("item1"));
+        assertThat(addonMetrics.limitTagValue("jdbc", "item4"), is(AddonMetrics.OTHER_TAG_VALUE));
+    }
+
+    @Test
+    public void timersAreCached() {
+        Timer timer = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_QUERY, "item1");
+        timer.record(Duration.ofMillis(5));
+
+        Timer cached = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_QUERY, "item1");
+        cached.record(Duration.ofMillis(5));
+
+        assertThat(cached, is(sameInstance(timer)));
+        assertThat(timer.count(), is(2L));
+        assertThat(addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item1"),
+                is(not(sameInstance(timer))));
+    }
+
+    @Test
+    public void patternsBeyondTheLimitShareOneTimer() {
+        addonMetrics.transformationTimer("MAP", "first.map");
+        addonMetrics.transformationTimer("MAP", "second.map");
+
+        Timer third = addonMetrics.transformationTimer("MAP", "third.map");
+        Timer fourth = addonMetrics.transformationTimer("MAP", "fourth.map");
+
+        assertThat(fourth, is(sameInstance(third)));
+        assertThat(third.getId().getTag("pattern"), is(AddonMetrics.OTHER_TAG_VALUE));
+    }
+
+    @Test
+    public void queueDepthGaugeReportsTheSupplier() {
+        AtomicInteger depth = new AtomicInteger(3);
+
+        addonMetrics.registerQueueDepth("jdbc", "writeBehind", depth::get);
+        depth.set(7);
+
+        assertThat(meterRegistry.get(AddonMetrics.QUEUE_DEPTH_GAUGE).tag("queue", "writeBehind").gauge().value(),
+                is(7.0));
+    }
+
+    @Test
+    public void removeMetersRemovesTheMetersAndTagValuesOfTheService() {
+        Timer timer = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item1");
+        addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item2");
+        addonMetrics.registerQueueDepth("jdbc", "writeBehind", () -> 1);
+        addonMetrics.persistenceTimer("influxdb", AddonMetrics.OPERATION_STORE, "item1");
+        addonMetrics.registerQueueDepth("influxdb", "buffer", () -> 1);
+
+        addonMetrics.removeMeters("jdbc");
+
+        assertThat(meterCount("jdbc"), is(0));
+        assertThat(meterCount("influxdb"), is(2));
+        // the tag values are available again and the timers are registered again
+        Timer newTimer = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item3");
+        assertThat(newTimer.getId().getTag("item"), is("item3"));
+        assertThat(addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item1"),
+                is(not(sameInstance(timer))));
+    }
+
+    @Test
+    public void removeMeterRemovesASingleMeter() {
+        Timer timer = addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item1");
+        Meter gauge = addonMetrics.registerQueueDepth("jdbc", "writeBehind", () -> 1);
+
+        addonMetrics.removeMeter(timer);
+        addonMetrics.removeMeter(gauge);
+
+        assertThat(meterCount("jdbc"), is(0));
+        assertThat(addonMetrics.persistenceTimer("jdbc", AddonMetrics.OPERATION_STORE, "item1"),
+                is(not(sameInstance(timer))));
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Tests the scrape cache of the {@link MetricsRestController}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MetricsRestControllerTest {
+
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+    private final MetricsRestController controller = new MetricsRestController();
+    private final Counter counter = Counter.builder("test.counter").register(meterRegistry);
+
+    private void activate(int scrapeCacheTtlSeconds) {
+        MeterRegistryProvider meterRegistryProvider = mock(MeterRegistryProvider.class);
+        when(meterRegistryProvider.getOHMeterRegistry()).thenReturn(meterRegistry);
+        controller.setMeterRegistryProvider(meterRegistryProvider);
+        controller.activate(Map.of("prometheusScrapeCacheTtlSeconds", scrapeCacheTtlSeconds));
+    }
+
+    private String scrape() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        controller.prometheusBody().write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void everyScrapeIsRenderedWithoutTtl() throws IOException {
+        activate(0);
+        counter.increment();
+        assertThat(scrape(), containsString("test_counter_total 1.0"));
+
+        counter.increment();
+        String scrape = scrape();
+
+        assertThat(scrape, containsString("test_counter_total 2.0"));
+        assertThat(scrape, containsString("openhab_metrics_scrape_duration_seconds_count{cached=\"false\",} 1.0"));
+        assertThat(scrape, containsString("openhab_metrics_scrape_duration_seconds_count{cached=\"true\",} 0.0"));
+    }
+
+    @Test
+    public void cachedScrapeIsServedWithinTheTtl() throws IOException {
+        activate(60);
+        counter.increment();
+        String first = scrape();
+
+        counter.increment();
+        String second = scrape();
+
+        assertThat(second, is(first));
+        assertThat(second, containsString("test_counter_total 1.0"));
+    }
+
+    @Test
+    public void scrapeIsRenderedAgainAfterTheTtl() throws Exception {
+        activate(1);
+        counter.increment();
+        scrape();
+        counter.increment();
+        scrape();
+
+        Thread.sleep(1100);
+        String scrape = scrape();
+
+        assertThat(scrape, containsString("test_counter_total 2.0"));
+        // the first scrape rendered the cache, the second one was a cache hit
+        assertThat(scrape, containsString("openhab_metrics_scrape_duration_seconds_count{cached=\"false\",} 1.0"));
+        assertThat(scrape, containsString("openhab_metrics_scrape_duration_seconds_count{cached=\"true\",} 1.0"));
+    }
+
+    @Test
+    public void modifiedTtlDropsTheCachedScrape() throws IOException {
+        activate(60);
+        counter.increment();
+        scrape();
+        counter.increment();
+
+        controller.modified(Map.of("prometheusScrapeCacheTtlSeconds", 60));
+
+        assertThat(scrape(), containsString("test_counter_total 2.0"));
+    }
+}
@@ -38,7 +38,6 @@ import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -58,6 +57,7 @@ import io.socket.engineio.client.Transport;
 import io.socket.engineio.client.transports.WebSocket;
 import io.socket.parser.Packet;
 import io.socket.parser.Parser;
+import io.socket.thread.EventThread;
 import okhttp3.OkHttpClient.Builder;
 import okhttp3.logging.HttpLoggingInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor.Level;
@@ -83,6 +83,18 @@ public class CloudClient {
 
     private static final long READ_TIMEOUT = 60_0000;
 
+    /*
+     * Maximum number of proxied requests waiting for a running request to finish, further requests are answered with
+     * 503 Service Unavailable
+     */
+    private static final int MAX_QUEUED_REQUESTS = 1000;
+
+    /*
+     * Time in seconds a proxied request may wait for a running request to finish before it is answered with
+     * 503 Service Unavailable
+     */
+    private static final long QUEUED_REQUEST_TIMEOUT = 30;
+
     /*
      * Logger for this class
      */
@@ -114,9 +126,15 @@ public class CloudClient {
     private final HttpClient jettyClient;
 
     /*
-     * This map holds HTTP requests to local openHAB which are currently running
+     * Limits the number of HTTP requests to local openHAB running at the same time to the connection limit of the
+     * HTTP client
      */
-    private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
+    private final ProxyRequestQueue requestQueue;
+
+    /*
+     * The content senders of the running requests, they are notified when the transport has written its packets
+     */
+    private final Set<ResponseContentSender> contentSenders = ConcurrentHashMap.newKeySet();
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -154,6 +172,16 @@ public class CloudClient {
     protected final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
 
+    /*
+     * Coalesces the item updates sent to the openHAB Cloud
+     */
+    private final ItemUpdateQueue itemUpdateQueue;
+
+    /*
+     * This variable indicates if item updates are sent in batches instead of one message per item
+     */
+    private final boolean batchItemUpdates;
+
     @SuppressWarnings("null")
     private final AtomicReference<Optional<ScheduledFuture<?>>> reconnectFuture = new AtomicReference<>(
             Optional.empty());
@@ -165,9 +193,13 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param itemUpdateFlushInterval Time in milliseconds item updates are collected before they are sent
+     * @param itemUpdateMinInterval Minimum time in milliseconds between two updates of the same item
+     * @param batchItemUpdates Send the collected item updates in a single message
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, long itemUpdateFlushInterval,
+            long itemUpdateMinInterval, boolean batchItemUpdates) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
@@ -175,6 +207,11 @@ public class CloudClient {
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
         this.jettyClient = httpClient;
+        this.requestQueue = new ProxyRequestQueue(scheduler, httpClient.getMaxConnectionsPerDestination(),
+                MAX_QUEUED_REQUESTS, TimeUnit.SECONDS.toMillis(QUEUED_REQUEST_TIMEOUT), this::sendServiceUnavailable);
+        this.batchItemUpdates = batchItemUpdates;
+        this.itemUpdateQueue = new ItemUpdateQueue(scheduler, itemUpdateFlushInterval, itemUpdateMinInterval,
+                this::emitItemUpdates);
         reconnectBackoff.setMin(RECONNECT_MIN);
         reconnectBackoff.setMax(RECONNECT_MAX);
         reconnectBackoff.setJitter(RECONNECT_JITTER);
@@ -236,6 +273,10 @@ public class CloudClient {
                             headers.put("remoteaccess", List.of(((Boolean) remoteAccessEnabled).toString()));
                         }
                     });
+                    transport.on(Transport.EVENT_DRAIN, drainArgs -> {
+                        // the packets have been written, see ResponseContentSender
+                        contentSenders.forEach(ResponseContentSender::drained);
+                    });
                 })//
                 .on(Manager.EVENT_CONNECT_ERROR, args -> {
                     if (args.length > 0) {
@@ -380,7 +421,7 @@ public class CloudClient {
                 this.localBaseUrl);
         isConnected = false;
         // And clean up the list of running requests
-        runningRequests.clear();
+        requestQueue.clear();
     }
 
     /**
@@ -461,8 +502,13 @@ public class CloudClient {
                 request.content(new BytesContentProvider(requestBody.getBytes()));
             }
 
+            // the content is streamed with flow control, see ResponseContentSender
+            ResponseContentSender contentSender = new ResponseContentSender(requestId, EventThread::exec,
+                    this::emitContent);
+            request.onResponseContentDemanded(contentSender);
             request.onResponseHeaders(response -> {
                 logger.debug("onHeaders {}", requestId);
+                contentSenders.add(contentSender);
                 JSONObject responseJson = new JSONObject();
                 try {
                     responseJson.put("id", requestId);
@@ -475,20 +521,6 @@ public class CloudClient {
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
                 }
-            }).onResponseContent((theResponse, content) -> {
-                logger.debug("onResponseContent: {}, content size {}", requestId, String.valueOf(content.remaining()));
-                JSONObject responseJson = new JSONObject();
-                try {
-                    responseJson.put("id", requestId);
-                    responseJson.put("body", BufferUtil.toArray(content));
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("{}", StandardCharsets.UTF_8.decode(content).toString());
-                    }
-                    socket.emit("responseContentBinary", responseJson);
-                    logger.trace("Sent content to request {}", requestId);
-                } catch (JSONException e) {
-                    logger.debug("{}", e.getMessage());
-                }
             }).onRequestFailure((origRequest, failure) -> {
                 logger.debug("onRequestFailure: {},  {}", requestId, failure.getMessage());
                 JSONObject responseJson = new JSONObject();
@@ -499,10 +531,12 @@ public class CloudClient {
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
                 }
-            }).send(result -> {
+            });
+            requestQueue.submit(requestId, request, result -> {
                 logger.debug("onComplete: {}", requestId);
                 // Remove this request from list of running requests
-                runningRequests.remove(requestId);
+                contentSenders.remove(contentSender);
+                requestQueue.finished(requestId);
                 if ((result != null && result.isFailed())
                         && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                     if (result.getFailure() != null) {
@@ -524,15 +558,42 @@ public class CloudClient {
                     logger.debug("{}", e.getMessage());
                 }
             });
-
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
-            runningRequests.put(requestId, request);
         } catch (JSONException | IOException | URISyntaxException e) {
             logger.debug("{}", e.getMessage());
         }
     }
 
+    private void sendServiceUnavailable(int requestId) {
+        try {
+            JSONObject responseJson = new JSONObject();
+            responseJson.put("id", requestId);
+            responseJson.put("headers", new JSONObject());
+            responseJson.put("responseStatusCode", HttpStatus.SERVICE_UNAVAILABLE_503);
+            responseJson.put("responseStatusText", HttpStatus.getMessage(HttpStatus.SERVICE_UNAVAILABLE_503));
+            socket.emit("responseHeader", responseJson);
+            JSONObject finishedJson = new JSONObject();
+            finishedJson.put("id", requestId);
+            socket.emit("responseFinished", finishedJson);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+        }
+    }
+
+    private void emitContent(int requestId, byte[] chunk) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            responseJson.put("body", chunk);
+            if (logger.isTraceEnabled()) {
+                logger.trace("{}", new String(chunk, StandardCharsets.UTF_8));
+            }
+            socket.emit("responseContentBinary", responseJson);
+            logger.trace("Sent content to request {}", requestId);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+        }
+    }
+
     private void setRequestHeaders(Request request, JSONObject requestHeadersJson) {
         Iterator<String> headersIterator = requestHeadersJson.keys();
         // Convert JSONObject of headers into Header ArrayList
@@ -556,11 +617,7 @@ public class CloudClient {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and abort running request
-            Request request = runningRequests.get(requestId);
-            if (request != null) {
-                request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
-            }
+            requestQueue.cancel(requestId);
         } catch (JSONException e) {
             logger.debug("{}", e.getMessage());
         }
@@ -682,28 +739,61 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. Updates are coalesced, so an update may be replaced by a newer state of the
+     * same item before it is sent.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
-        if (isConnected()) {
-            logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
-            JSONObject itemUpdateMessage = new JSONObject();
-            try {
-                itemUpdateMessage.put("itemName", itemName);
-                itemUpdateMessage.put("itemStatus", itemState);
-                socket.emit("itemupdate", itemUpdateMessage);
-            } catch (JSONException e) {
-                logger.debug("{}", e.getMessage());
+        itemUpdateQueue.add(itemName, itemState);
+    }
+
+    /**
+     * Returns the counters of sent, suppressed and dropped item updates
+     */
+    public ItemUpdateQueue.Statistics getItemUpdateStatistics() {
+        return itemUpdateQueue.getStatistics();
+    }
+
+    private boolean emitItemUpdates(Map<String, String> itemUpdates) {
+        if (!isConnected()) {
+            logger.debug("No connection, {} item updates are not sent", itemUpdates.size());
+            return false;
+        }
+        try {
+            // batched updates are not acknowledged, a server without support ignores them
+            if (batchItemUpdates && itemUpdates.size() > 1) {
+                logger.debug("Sending updates for {} items", itemUpdates.size());
+                JSONArray items = new JSONArray();
+                for (Map.Entry<String, String> itemUpdate : itemUpdates.entrySet()) {
+                    items.put(getItemUpdateMessage(itemUpdate.getKey(), itemUpdate.getValue()));
+                }
+                JSONObject itemUpdatesMessage = new JSONObject();
+                itemUpdatesMessage.put("items", items);
+                socket.emit("itemupdates", itemUpdatesMessage);
+            } else {
+                // servers without batch support only know single item updates
+                for (Map.Entry<String, String> itemUpdate : itemUpdates.entrySet()) {
+                    logger.debug("Sending update '{}' for item '{}'", itemUpdate.getValue(), itemUpdate.getKey());
+                    socket.emit("itemupdate", getItemUpdateMessage(itemUpdate.getKey(), itemUpdate.getValue()));
+                }
             }
-        } else {
-            logger.debug("No connection, Item update is not sent");
+            return true;
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+            return false;
         }
     }
 
+    private JSONObject getItemUpdateMessage(String itemName, String itemState) throws JSONException {
+        JSONObject itemUpdateMessage = new JSONObject();
+        itemUpdateMessage.put("itemName", itemName);
+        itemUpdateMessage.put("itemStatus", itemState);
+        return itemUpdateMessage;
+    }
+
     /**
      * Returns true if openHAB Cloud connection is active
      */
@@ -717,6 +807,10 @@ public class CloudClient {
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
         reconnectFuture.get().ifPresent(future -> future.cancel(true));
+        itemUpdateQueue.clear();
+        ItemUpdateQueue.Statistics statistics = itemUpdateQueue.getStatistics();
+        logger.debug("Item updates sent: {}, suppressed: {}, dropped: {}", statistics.sent(), statistics.suppressed(),
+                statistics.dropped());
         socket.disconnect();
     }
 
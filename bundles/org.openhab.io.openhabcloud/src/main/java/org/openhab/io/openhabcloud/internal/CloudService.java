@@ -76,6 +76,10 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_FLUSH_INTERVAL = "itemUpdateFlushInterval";
+    private static final String CFG_ITEM_UPDATE_MIN_INTERVAL = "itemUpdateMinInterval";
+    private static final String CFG_BATCH_ITEM_UPDATES = "batchItemUpdates";
+    private static final long DEFAULT_ITEM_UPDATE_FLUSH_INTERVAL = 1000;
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
@@ -94,6 +98,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private boolean remoteAccessEnabled = true;
     private Set<String> exposedItems = null;
     private int localPort;
+    private long itemUpdateFlushInterval = DEFAULT_ITEM_UPDATE_FLUSH_INTERVAL;
+    private long itemUpdateMinInterval;
+    private boolean batchItemUpdates;
 
     @Activate
     public CloudService(final @Reference HttpClientFactory httpClientFactory,
@@ -244,6 +251,10 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        itemUpdateFlushInterval = getLong(config, CFG_ITEM_UPDATE_FLUSH_INTERVAL, DEFAULT_ITEM_UPDATE_FLUSH_INTERVAL);
+        itemUpdateMinInterval = getLong(config, CFG_ITEM_UPDATE_MIN_INTERVAL, 0);
+        batchItemUpdates = Boolean.parseBoolean(String.valueOf(config.get(CFG_BATCH_ITEM_UPDATES)));
+
         logger.debug("UUID = {}, secret = {}", censored(InstanceUUID.get()), censored(getSecret()));
 
         if (cloudClient != null) {
@@ -262,12 +273,26 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
-                remoteAccessEnabled, exposedItems);
+                remoteAccessEnabled, exposedItems, itemUpdateFlushInterval, itemUpdateMinInterval, batchItemUpdates);
         cloudClient.connect();
         cloudClient.setListener(this);
         NotificationAction.cloudService = this;
     }
 
+    private long getLong(Map<String, ?> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        } else if (value != null) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link ItemUpdateQueue} coalesces the item updates sent to the openHAB Cloud. Within a flush interval only the
+ * latest state of each item is kept, and an item is sent at most once per minimum interval. Updates that are replaced
+ * by a newer state before they are sent are counted as suppressed, updates the sender could not send (e.g. while
+ * disconnected) are counted as dropped.
+ *
+ * If both intervals are zero, updates are passed to the sender immediately.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateQueue {
+
+    /**
+     * Sends the item updates to the openHAB Cloud.
+     */
+    public interface Sender {
+        /**
+         * @param itemUpdates the states by item name, in the order the items were first updated
+         * @return false if the updates could not be sent and are dropped
+         */
+        boolean send(Map<String, String> itemUpdates);
+    }
+
+    /**
+     * @param sent the number of updates sent
+     * @param suppressed the number of updates replaced by a newer state of the same item
+     * @param dropped the number of updates the sender could not send
+     */
+    public record Statistics(long sent, long suppressed, long dropped) {
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final long flushIntervalMillis;
+    private final long minIntervalMillis;
+    private final Sender sender;
+
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private final Map<String, Long> lastSent = new HashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private @Nullable ScheduledFuture<?> flushFuture;
+    // the time the scheduled flush is due, a flush that is needed earlier replaces it
+    private long flushDue;
+
+    /**
+     * @param scheduler the scheduler running the flushes
+     * @param flushIntervalMillis the time updates are collected before they are sent
+     * @param minIntervalMillis the minimum time between two updates of the same item
+     * @param sender sends the updates
+     */
+    public ItemUpdateQueue(ScheduledExecutorService scheduler, long flushIntervalMillis, long minIntervalMillis,
+            Sender sender) {
+        this.scheduler = scheduler;
+        this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+        this.minIntervalMillis = Math.max(0, minIntervalMillis);
+        this.sender = sender;
+    }
+
+    /**
+     * Queues the state of an item, replacing a state of the same item which has not been sent yet.
+     *
+     * @param itemName the name of the item
+     * @param itemState the state of the item
+     */
+    public void add(String itemName, String itemState) {
+        if (flushIntervalMillis == 0 && minIntervalMillis == 0) {
+            send(Map.of(itemName, itemState));
+            return;
+        }
+        synchronized (this) {
+            if (pending.put(itemName, itemState) != null) {
+                suppressed.increment();
+            }
+            scheduleFlush(flushIntervalMillis);
+        }
+    }
+
+    /**
+     * Drops all updates which have not been sent yet.
+     */
+    public synchronized void clear() {
+        ScheduledFuture<?> future = flushFuture;
+        if (future != null) {
+            future.cancel(false);
+            flushFuture = null;
+        }
+        pending.clear();
+        lastSent.clear();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(sent.sum(), suppressed.sum(), dropped.sum());
+    }
+
+    private void flush() {
+        Map<String, String> batch = new LinkedHashMap<>();
+        synchronized (this) {
+            flushFuture = null;
+            long now = System.currentTimeMillis();
+            long nextDue = Long.MAX_VALUE;
+            for (Iterator<Map.Entry<String, String>> it = pending.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, String> entry = it.next();
+                Long last = lastSent.get(entry.getKey());
+                long due = last == null ? now : last + minIntervalMillis;
+                if (due <= now) {
+                    batch.put(entry.getKey(), entry.getValue());
+                    lastSent.put(entry.getKey(), now);
+                    it.remove();
+                } else {
+                    nextDue = Math.min(nextDue, due);
+                }
+            }
+            if (!pending.isEmpty()) {
+                // rate limited items are sent as soon as their interval has passed
+                scheduleFlush(Math.max(flushIntervalMillis, nextDue - now));
+            }
+            lastSent.values().removeIf(last -> last + minIntervalMillis <= now);
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(Map<String, String> itemUpdates) {
+        if (sender.send(itemUpdates)) {
+            sent.add(itemUpdates.size());
+        } else {
+            dropped.add(itemUpdates.size());
+        }
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        long due = System.currentTimeMillis() + delayMillis;
+        ScheduledFuture<?> future = flushFuture;
+        if (future != null) {
+            if (flushDue <= due) {
+                return;
+            }
+            // e.g. a rate limited item delays the flush, but another item has been updated
+            future.cancel(false);
+        }
+        flushDue = due;
+        flushFuture = scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
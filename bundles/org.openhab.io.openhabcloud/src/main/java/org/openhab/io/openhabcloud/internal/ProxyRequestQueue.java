@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ProxyRequestQueue} limits the number of proxied requests to openHAB running at the same time. Further
+ * requests wait in a bounded queue and are sent in order when a running request has finished. Requests which do not
+ * fit into the queue or wait longer than the queue timeout are rejected, the openHAB Cloud answers them with
+ * 503 Service Unavailable.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyRequestQueue {
+    private record QueuedRequest(Request request, Response.CompleteListener listener, ScheduledFuture<?> timeout) {
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ProxyRequestQueue.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final int maxRunning;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final IntConsumer rejecter;
+
+    private final Map<Integer, Request> running = new HashMap<>();
+    private final Map<Integer, QueuedRequest> queued = new LinkedHashMap<>();
+
+    /**
+     * @param scheduler the scheduler running the queue timeouts
+     * @param maxRunning the maximum number of requests running at the same time
+     * @param maxQueued the maximum number of requests waiting for a running request to finish
+     * @param queueTimeoutMillis the maximum time a request waits for a running request to finish
+     * @param rejecter called with the id of a rejected request
+     */
+    public ProxyRequestQueue(ScheduledExecutorService scheduler, int maxRunning, int maxQueued,
+            long queueTimeoutMillis, IntConsumer rejecter) {
+        this.scheduler = scheduler;
+        this.maxRunning = Math.max(1, maxRunning);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.rejecter = rejecter;
+    }
+
+    /**
+     * Sends a request, or queues it if the maximum number of requests are running. If the queue is full, the request
+     * is rejected.
+     *
+     * @param requestId the id of the request
+     * @param request the request
+     * @param listener the listener the request is sent with, it has to call {@link #finished(int)}
+     */
+    public void submit(int requestId, Request request, Response.CompleteListener listener) {
+        boolean rejected = false;
+        synchronized (this) {
+            if (running.size() < maxRunning) {
+                running.put(requestId, request);
+            } else if (queued.size() < maxQueued) {
+                logger.debug("{} requests running, queueing request {}", running.size(), requestId);
+                ScheduledFuture<?> timeout = scheduler.schedule(() -> timedOut(requestId), queueTimeoutMillis,
+                        TimeUnit.MILLISECONDS);
+                queued.put(requestId, new QueuedRequest(request, listener, timeout));
+                return;
+            } else {
+                logger.debug("{} requests queued, rejecting request {}", queued.size(), requestId);
+                rejected = true;
+            }
+        }
+        if (rejected) {
+            rejecter.accept(requestId);
+        } else {
+            request.send(listener);
+        }
+    }
+
+    /**
+     * Removes a request from the running requests and sends the next queued request.
+     *
+     * @param requestId the id of the request
+     */
+    public void finished(int requestId) {
+        @Nullable QueuedRequest next = null;
+        synchronized (this) {
+            if (running.remove(requestId) == null) {
+                // already removed by a cancel or clear
+                return;
+            }
+            Iterator<Map.Entry<Integer, QueuedRequest>> iterator = queued.entrySet().iterator();
+            if (iterator.hasNext()) {
+                Map.Entry<Integer, QueuedRequest> entry = iterator.next();
+                iterator.remove();
+                next = entry.getValue();
+                next.timeout().cancel(false);
+                running.put(entry.getKey(), next.request());
+            }
+        }
+        if (next != null) {
+            next.request().send(next.listener());
+        }
+    }
+
+    /**
+     * Removes a queued request, or aborts a running request.
+     *
+     * @param requestId the id of the request
+     */
+    public void cancel(int requestId) {
+        @Nullable Request request;
+        synchronized (this) {
+            @Nullable QueuedRequest queuedRequest = queued.remove(requestId);
+            if (queuedRequest != null) {
+                queuedRequest.timeout().cancel(false);
+                logger.debug("Removed queued request {}", requestId);
+                return;
+            }
+            request = running.get(requestId);
+        }
+        if (request != null) {
+            request.abort(new InterruptedException());
+            finished(requestId);
+        }
+    }
+
+    /**
+     * Forgets all running and queued requests, e.g. after the connection to the openHAB Cloud has been lost.
+     */
+    public synchronized void clear() {
+        running.clear();
+        queued.values().forEach(queuedRequest -> queuedRequest.timeout().cancel(false));
+        queued.clear();
+    }
+
+    /**
+     * @return the number of running requests
+     */
+    public synchronized int getRunning() {
+        return running.size();
+    }
+
+    /**
+     * @return the number of requests waiting for a running request to finish
+     */
+    public synchronized int getQueued() {
+        return queued.size();
+    }
+
+    private void timedOut(int requestId) {
+        synchronized (this) {
+            if (queued.remove(requestId) == null) {
+                return;
+            }
+        }
+        logger.debug("Request {} has been queued for more than {} ms", requestId, queueTimeoutMillis);
+        rejecter.accept(requestId);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.util.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ResponseContentSender} streams the response content of a proxied request to the openHAB Cloud. The
+ * content is split into messages of at most {@link #MAX_CHUNK_SIZE} bytes, which are emitted on the Socket.IO event
+ * thread.
+ *
+ * No more content is demanded from openHAB while more than {@link #MAX_IN_FLIGHT} bytes have been read but not
+ * written by the engine.io transport yet. Bytes are released when the transport reports a drain, i.e. after it has
+ * written the packets it was given: a completed HTTP request when polling, or the hand-over to the websocket
+ * of the HTTP client when using websockets. The send queue of the websocket itself is not visible to engine.io, so
+ * with websockets this bounds the content buffered in Socket.IO and engine.io, not the bytes queued by the websocket.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ResponseContentSender implements Response.DemandedContentListener {
+
+    /**
+     * Maximum size of a single content message
+     */
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of bytes read from openHAB but not written by the transport yet
+     */
+    static final int MAX_IN_FLIGHT = 256 * 1024;
+
+    /**
+     * Emits the content messages to the openHAB Cloud.
+     */
+    public interface ContentEmitter {
+        /**
+         * @param requestId the id of the request
+         * @param chunk the content
+         */
+        void emit(int requestId, byte[] chunk);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ResponseContentSender.class);
+
+    private final int requestId;
+    private final Executor eventThread;
+    private final ContentEmitter emitter;
+
+    // bytes read from openHAB and not drained yet
+    private long inFlight;
+    // bytes emitted and not drained yet
+    private long emitted;
+    private @Nullable LongConsumer pendingDemand;
+
+    /**
+     * @param requestId the id of the request
+     * @param eventThread executes tasks on the Socket.IO event thread
+     * @param emitter emits the content messages
+     */
+    public ResponseContentSender(int requestId, Executor eventThread, ContentEmitter emitter) {
+        this.requestId = requestId;
+        this.eventThread = eventThread;
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void onContent(Response response, LongConsumer demand, ByteBuffer content, Callback callback) {
+        int size = content.remaining();
+        logger.debug("onResponseContent: {}, content size {}", requestId, size);
+        synchronized (this) {
+            inFlight += size;
+        }
+        while (content.hasRemaining()) {
+            byte[] chunk = new byte[Math.min(MAX_CHUNK_SIZE, content.remaining())];
+            content.get(chunk);
+            eventThread.execute(() -> {
+                emitter.emit(requestId, chunk);
+                synchronized (this) {
+                    emitted += chunk.length;
+                }
+            });
+        }
+        callback.succeeded();
+        synchronized (this) {
+            if (inFlight > MAX_IN_FLIGHT) {
+                logger.trace("Pausing content of request {}, {} bytes in flight", requestId, inFlight);
+                pendingDemand = demand;
+                return;
+            }
+        }
+        demand.accept(1);
+    }
+
+    /**
+     * Releases the bytes emitted so far, called after the transport has written its packets.
+     */
+    public void drained() {
+        @Nullable LongConsumer demand = null;
+        synchronized (this) {
+            inFlight -= emitted;
+            emitted = 0;
+            if (pendingDemand != null && inFlight <= MAX_IN_FLIGHT / 2) {
+                demand = pendingDemand;
+                pendingDemand = null;
+            }
+        }
+        if (demand != null) {
+            logger.trace("Resuming content of request {}", requestId);
+            demand.accept(1);
+        }
+    }
+
+    /**
+     * @return the number of bytes read from openHAB but not written by the transport yet
+     */
+    public synchronized long getInFlight() {
+        return inFlight;
+    }
+}
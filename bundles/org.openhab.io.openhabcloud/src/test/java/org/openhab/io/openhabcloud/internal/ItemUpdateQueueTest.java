@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ItemUpdateQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateQueueTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Map<String, String>> batches = new ArrayList<>();
+    private boolean connected = true;
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized boolean send(Map<String, String> itemUpdates) {
+        if (!connected) {
+            return false;
+        }
+        batches.add(itemUpdates);
+        return true;
+    }
+
+    private void awaitFlush(long millis) throws Exception {
+        Thread.sleep(millis);
+        scheduler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void updatesAreSentImmediatelyWithoutIntervals() {
+        ItemUpdateQueue queue = new ItemUpdateQueue(scheduler, 0, 0, this::send);
+
+        queue.add("item1", "1");
+        queue.add("item1", "2");
+
+        assertThat(batches, is(List.of(Map.of("item1", "1"), Map.of("item1", "2"))));
+        assertThat(queue.getStatistics(), is(new ItemUpdateQueue.Statistics(2, 0, 0)));
+    }
+
+    @Test
+    public void updatesWithinTheFlushIntervalAreCoalesced() throws Exception {
+        ItemUpdateQueue queue = new ItemUpdateQueue(scheduler, 50, 0, this::send);
+
+        queue.add("item1", "1");
+        queue.add("item2", "a");
+        queue.add("item1", "2");
+        awaitFlush(100);
+
+        assertThat(batches.size(), is(1));
+        assertThat(List.copyOf(batches.get(0).keySet()), is(List.of("item1", "item2")));
+        assertThat(batches.get(0).get("item1"), is("2"));
+        assertThat(queue.getStatistics(), is(new ItemUpdateQueue.Statistics(2, 1, 0)));
+    }
+
+    @Test
+    public void updatesOfAnItemAreRateLimited() throws Exception {
+        ItemUpdateQueue queue = new ItemUpdateQueue(scheduler, 10, 200, this::send);
+
+        queue.add("item1", "1");
+        awaitFlush(50);
+        queue.add("item1", "2");
+        awaitFlush(50);
+
+        assertThat(batches, is(List.of(Map.of("item1", "1"))));
+
+        awaitFlush(250);
+
+        assertThat(batches, is(List.of(Map.of("item1", "1"), Map.of("item1", "2"))));
+    }
+
+    @Test
+    public void rateLimitedItemDoesNotDelayOtherItems() throws Exception {
+        ItemUpdateQueue queue = new ItemUpdateQueue(scheduler, 10, 1000, this::send);
+
+        queue.add("item1", "1");
+        awaitFlush(50);
+        // item1 is held back for its minimum interval
+        queue.add("item1", "2");
+        awaitFlush(50);
+        queue.add("item2", "a");
+        awaitFlush(50);
+
+        assertThat(batches, is(List.of(Map.of("item1", "1"), Map.of("item2", "a"))));
+    }
+
+    @Test
+    public void updatesNotSentAreCountedAsDropped() throws Exception {
+        ItemUpdateQueue queue = new ItemUpdateQueue(scheduler, 10, 0, this::send);
+        connected = false;
+
+        queue.add("item1", "1");
+        queue.add("item2", "a");
+        awaitFlush(50);
+
+        assertThat(batches.isEmpty(), is(true));
+        assertThat(queue.getStatistics(), is(new ItemUpdateQueue.Statistics(0, 0, 2)));
+    }
+
+    @Test
+    public void clearDropsPendingUpdates() throws Exception {
+        ItemUpdateQueue queue = new ItemUpdateQueue(scheduler, 50, 0, this::send);
+
+        queue.add("item1", "1");
+        queue.clear();
+        awaitFlush(100);
+
+        assertThat(batches.isEmpty(), is(true));
+        assertThat(queue.getStatistics().sent(), is(0L));
+    }
+}
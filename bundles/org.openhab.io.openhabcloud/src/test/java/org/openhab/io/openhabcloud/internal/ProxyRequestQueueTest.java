@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ProxyRequestQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyRequestQueueTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Integer> rejected = new CopyOnWriteArrayList<>();
+    private final Response.CompleteListener listener = result -> {
+    };
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private ProxyRequestQueue queue(int maxRunning, int maxQueued, long queueTimeoutMillis) {
+        return new ProxyRequestQueue(scheduler, maxRunning, maxQueued, queueTimeoutMillis, rejected::add);
+    }
+
+    @Test
+    public void requestsAreQueuedAndSentInOrder() {
+        ProxyRequestQueue queue = queue(1, 10, 10000);
+        Request first = mock(Request.class);
+        Request second = mock(Request.class);
+        Request third = mock(Request.class);
+
+        queue.submit(1, first, listener);
+        queue.submit(2, second, listener);
+        queue.submit(3, third, listener);
+
+        verify(first).send(listener);
+        verify(second, never()).send(any(Response.CompleteListener.class));
+        assertThat(queue.getRunning(), is(1));
+        assertThat(queue.getQueued(), is(2));
+
+        queue.finished(1);
+
+        verify(second).send(listener);
+        verify(third, never()).send(any(Response.CompleteListener.class));
+        assertThat(queue.getRunning(), is(1));
+        assertThat(queue.getQueued(), is(1));
+
+        queue.finished(2);
+        queue.finished(3);
+
+        verify(third).send(listener);
+        assertThat(queue.getRunning(), is(0));
+        assertThat(rejected.isEmpty(), is(true));
+    }
+
+    @Test
+    public void requestIsRejectedIfTheQueueIsFull() {
+        ProxyRequestQueue queue = queue(1, 1, 10000);
+        Request overflow = mock(Request.class);
+
+        queue.submit(1, mock(Request.class), listener);
+        queue.submit(2, mock(Request.class), listener);
+        queue.submit(3, overflow, listener);
+
+        assertThat(rejected, is(List.of(3)));
+        assertThat(queue.getQueued(), is(1));
+        verify(overflow, never()).send(any(Response.CompleteListener.class));
+    }
+
+    @Test
+    public void requestIsRejectedIfItIsQueuedTooLong() throws Exception {
+        ProxyRequestQueue queue = queue(1, 10, 50);
+        Request queued = mock(Request.class);
+
+        queue.submit(1, mock(Request.class), listener);
+        queue.submit(2, queued, listener);
+        Thread.sleep(200);
+
+        assertThat(rejected, is(List.of(2)));
+        assertThat(queue.getQueued(), is(0));
+
+        // the timed out request is not sent after the running request has finished
+        queue.finished(1);
+        verify(queued, never()).send(any(Response.CompleteListener.class));
+    }
+
+    @Test
+    public void cancelledQueuedRequestIsNeitherSentNorRejected() throws Exception {
+        ProxyRequestQueue queue = queue(1, 10, 50);
+        Request running = mock(Request.class);
+        Request queued = mock(Request.class);
+        queue.submit(1, running, listener);
+        queue.submit(2, queued, listener);
+
+        queue.cancel(2);
+        Thread.sleep(200);
+        queue.finished(1);
+
+        verify(queued, never()).send(any(Response.CompleteListener.class));
+        verify(running, never()).abort(any());
+        assertThat(rejected.isEmpty(), is(true));
+    }
+
+    @Test
+    public void cancelledRunningRequestIsAbortedAndTheNextRequestIsSent() {
+        ProxyRequestQueue queue = queue(1, 10, 10000);
+        Request running = mock(Request.class);
+        Request queued = mock(Request.class);
+        queue.submit(1, running, listener);
+        queue.submit(2, queued, listener);
+
+        queue.cancel(1);
+
+        verify(running).abort(any());
+        verify(queued).send(listener);
+
+        // the complete listener of the aborted request does not start another request
+        Request third = mock(Request.class);
+        queue.submit(3, third, listener);
+        queue.finished(1);
+        verify(third, never()).send(any(Response.CompleteListener.class));
+    }
+
+    @Test
+    public void clearForgetsAllRequests() throws Exception {
+        ProxyRequestQueue queue = queue(1, 10, 50);
+        Request queued = mock(Request.class);
+        queue.submit(1, mock(Request.class), listener);
+        queue.submit(2, queued, listener);
+
+        queue.clear();
+        Thread.sleep(200);
+
+        assertThat(queue.getRunning(), is(0));
+        assertThat(queue.getQueued(), is(0));
+        assertThat(rejected.isEmpty(), is(true));
+        queue.finished(1);
+        verify(queued, never()).send(any(Response.CompleteListener.class));
+    }
+}
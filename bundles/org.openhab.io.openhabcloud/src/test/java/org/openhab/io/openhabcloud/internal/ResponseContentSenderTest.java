@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.util.Callback;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ResponseContentSender}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ResponseContentSenderTest {
+
+    // the tasks waiting for the Socket.IO event thread
+    private final List<Runnable> eventTasks = new ArrayList<>();
+    private final List<byte[]> chunks = new ArrayList<>();
+    private final ResponseContentSender sender = new ResponseContentSender(1, eventTasks::add,
+            (requestId, chunk) -> chunks.add(chunk));
+    private final Response response = mock(Response.class);
+    private final Callback callback = mock(Callback.class);
+    private final LongConsumer demand = mock(LongConsumer.class);
+
+    private void runEventTasks() {
+        eventTasks.forEach(Runnable::run);
+        eventTasks.clear();
+    }
+
+    private void content(int size) {
+        sender.onContent(response, demand, ByteBuffer.allocate(size), callback);
+    }
+
+    @Test
+    public void contentIsSplitIntoChunks() {
+        content(ResponseContentSender.MAX_CHUNK_SIZE * 2 + 10);
+
+        assertThat(chunks.isEmpty(), is(true));
+        runEventTasks();
+
+        assertThat(chunks.size(), is(3));
+        assertThat(chunks.get(0).length, is(ResponseContentSender.MAX_CHUNK_SIZE));
+        assertThat(chunks.get(2).length, is(10));
+        verify(callback).succeeded();
+        verify(demand).accept(1);
+    }
+
+    @Test
+    public void contentIsPausedUntilTheTransportHasDrained() {
+        int size = ResponseContentSender.MAX_CHUNK_SIZE;
+        for (int i = 0; i < 4; i++) {
+            content(size);
+        }
+        verify(demand, times(4)).accept(1);
+
+        // more than the limit is in flight
+        content(size);
+        verify(demand, times(4)).accept(1);
+        assertThat(sender.getInFlight(), is(5L * size));
+
+        // the chunks have been emitted, but the transport has not written them yet
+        runEventTasks();
+        verify(demand, times(4)).accept(1);
+
+        sender.drained();
+
+        assertThat(sender.getInFlight(), is(0L));
+        verify(demand, times(5)).accept(1);
+        assertThat(chunks.size(), is(5));
+    }
+
+    @Test
+    public void drainReleasesOnlyEmittedContent() {
+        int size = ResponseContentSender.MAX_CHUNK_SIZE;
+        for (int i = 0; i < 5; i++) {
+            content(size);
+        }
+        verify(demand, times(4)).accept(1);
+
+        // a drain of earlier packets while the content is still waiting for the event thread
+        sender.drained();
+        verify(demand, times(4)).accept(1);
+        assertThat(sender.getInFlight(), is(5L * size));
+
+        // the content is resumed once half of the limit has been written
+        eventTasks.get(0).run();
+        eventTasks.get(1).run();
+        eventTasks.get(2).run();
+        sender.drained();
+        verify(demand, times(5)).accept(1);
+        assertThat(sender.getInFlight(), is(2L * size));
+    }
+}
@@ -14,10 +14,11 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -25,15 +26,15 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
@@ -57,6 +58,8 @@ import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.InfluxPointBuffer;
+import org.openhab.persistence.influxdb.internal.InfluxPointSpool;
 import org.openhab.persistence.influxdb.internal.influx1.InfluxDB1RepositoryImpl;
 import org.openhab.persistence.influxdb.internal.influx2.InfluxDB2RepositoryImpl;
 import org.osgi.framework.Constants;
@@ -98,7 +101,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
-    private static final int COMMIT_INTERVAL = 3; // in s
+    private static final long COMMIT_INTERVAL = TimeUnit.SECONDS.toMillis(3);
+    private static final long MAX_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(5);
     protected static final String CONFIG_URI = "persistence:influxdb";
 
     // External dependencies
@@ -107,11 +111,13 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     private final InfluxDBConfiguration configuration;
     private final InfluxDBRepository influxDBRepository;
-    private boolean serviceActivated;
+    private volatile boolean serviceActivated;
 
     // storage
-    private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("org.openhab.influxdb");
+    private @Nullable ScheduledFuture<?> storeJob;
+    private final InfluxPointBuffer pointsBuffer;
+    private int failedCommits = 0;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -126,9 +132,9 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         if (configuration.isValid()) {
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
-            this.storeJob = ThreadPoolManager.getScheduledPool("org.openhab.influxdb")
-                    .scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.SECONDS);
+            this.pointsBuffer = new InfluxPointBuffer(configuration.getBufferSize(), createSpool());
             serviceActivated = true;
+            this.storeJob = scheduler.schedule(this::commit, COMMIT_INTERVAL, TimeUnit.MILLISECONDS);
         } else {
             throw new IllegalArgumentException("Configuration invalid.");
         }
@@ -145,24 +151,55 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         };
     }
 
+    private @Nullable InfluxPointSpool createSpool() {
+        int spoolSize = configuration.getSpoolSize();
+        if (spoolSize == 0) {
+            return null;
+        }
+        Path directory = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb");
+        try {
+            return new InfluxPointSpool(directory, spoolSize * 1024L * 1024L);
+        } catch (IOException e) {
+            logger.warn("Failed to create spool directory '{}', points exceeding the buffer will be dropped: {}",
+                    directory, e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
     @Deactivate
     public void deactivate() {
-        serviceActivated = false;
-
-        storeJob.cancel(false);
-        commit(); // ensure we at least tried to store the data;
+        // holding the lock of commit(), so that a running commit finishes first and does not schedule another one
+        synchronized (this) {
+            serviceActivated = false;
+
+            ScheduledFuture<?> storeJob = this.storeJob;
+            if (storeJob != null) {
+                storeJob.cancel(false);
+                this.storeJob = null;
+            }
+            flush(); // ensure we at least tried to store the data;
+        }
 
-        if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
+        int lostPoints = pointsBuffer.close();
+        if (lostPoints > 0) {
+            logger.warn("InfluxDB failed to finally store {} points.", lostPoints);
         }
+        logger.debug("InfluxDB buffer statistics: {}", pointsBuffer.getStatistics());
 
         influxDBRepository.disconnect();
         logger.info("InfluxDB persistence service stopped.");
     }
 
+    /**
+     * @return the counters of points queued, written and dropped
+     */
+    public InfluxPointBuffer.Statistics getBufferStatistics() {
+        return pointsBuffer.getStatistics();
+    }
+
     @Override
     public String getId() {
         return SERVICE_NAME;
@@ -210,11 +247,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 logger.trace("Ignoring item {}, conversion to an InfluxDB point failed.", item.getName());
                 return;
             }
-            if (pointsQueue.offer(point)) {
-                logger.trace("Queued {} for item {}", point, item);
-            } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
-            }
+            pointsBuffer.add(point);
+            logger.trace("Queued {} for item {}", point, item);
         });
     }
 
@@ -279,18 +313,60 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         return false;
     }
 
-    private void commit() {
-        if (!pointsQueue.isEmpty() && checkConnection()) {
-            List<InfluxPoint> points = new ArrayList<>();
-            pointsQueue.drainTo(points);
-            if (!influxDBRepository.write(points)) {
-                logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
-                influxDBRepository.disconnect();
-            } else {
-                logger.trace("Wrote {} elements to database", points.size());
+    private synchronized void commit() {
+        if (!serviceActivated) {
+            // a commit that was waiting for deactivate()
+            return;
+        }
+        long delay = COMMIT_INTERVAL;
+        try {
+            if (!pointsBuffer.isEmpty()) {
+                if (writeBatch()) {
+                    failedCommits = 0;
+                    // continue immediately if there is at least one more full batch
+                    delay = pointsBuffer.size() >= configuration.getBatchSize() ? 0 : COMMIT_INTERVAL;
+                } else {
+                    // retry with exponential backoff
+                    failedCommits++;
+                    delay = Math.min(COMMIT_INTERVAL << Math.min(failedCommits, 10), MAX_RETRY_INTERVAL);
+                    logger.debug("Retrying to write points in {} ms, buffer: {}", delay,
+                            pointsBuffer.getStatistics());
+                }
             }
+        } catch (RuntimeException e) {
+            logger.warn("Unexpected error while writing points to InfluxDB", e);
+        } finally {
+            if (serviceActivated) {
+                storeJob = scheduler.schedule(this::commit, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private synchronized void flush() {
+        // only the points kept in memory, spooled points are written after the next start
+        while (pointsBuffer.size() > 0 && writeBatch()) {
+            logger.trace("Flushed batch, {} points remaining", pointsBuffer.size());
+        }
+    }
+
+    private boolean writeBatch() {
+        if (!checkConnection()) {
+            return false;
         }
+        List<InfluxPoint> points = pointsBuffer.peek(configuration.getBatchSize());
+        if (points.isEmpty()) {
+            return true;
+        }
+        if (influxDBRepository.write(points)) {
+            pointsBuffer.remove(points.size());
+            logger.trace("Wrote {} elements to database", points.size());
+            return true;
+        }
+        if (failedCommits == 0) {
+            logger.warn("Failed to write batch of {} elements, keeping them in the buffer.", points.size());
+        }
+        influxDBRepository.disconnect();
+        return false;
     }
 
     /**
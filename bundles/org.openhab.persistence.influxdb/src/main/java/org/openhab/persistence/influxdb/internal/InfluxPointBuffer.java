@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link InfluxPointBuffer} holds the points that have not been written to the database yet. The number of points
+ * kept in memory is limited. If a {@link InfluxPointSpool} is configured, points exceeding this limit are spilled to
+ * disk and read back when the memory buffer has been written. Otherwise (or if the spool is full) new points are
+ * dropped.
+ *
+ * Points are taken from the buffer in batches: {@link #peek(int)} returns the next batch, which is removed by
+ * {@link #remove(int)} after it has been written successfully. Only one thread may write batches at a time. Spooled
+ * points are loaded one segment at a time, the segment is deleted once all of its points have been written.
+ *
+ * The spool is guarded by its own lock, so that adding points to the memory buffer is never blocked by disk I/O.
+ * Except in {@link #close()}, the buffer lock is never held while waiting for the spool lock.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointBuffer {
+    private final Logger logger = LoggerFactory.getLogger(InfluxPointBuffer.class);
+
+    private final Deque<InfluxPoint> points = new ArrayDeque<>();
+    private final int capacity;
+    private final @Nullable InfluxPointSpool spool;
+    private final Object spoolLock = new Object();
+    // the number of points at the head of the memory buffer which are still stored in the oldest spool segment
+    private int spooledInMemory;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    // a warning is logged for the first dropped point until points can be written again
+    private final AtomicBoolean dropWarningLogged = new AtomicBoolean();
+    private final AtomicLong droppedSinceWarning = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of points kept in memory
+     * @param spool the spool for points exceeding the capacity or null if they should be dropped
+     */
+    public InfluxPointBuffer(int capacity, @Nullable InfluxPointSpool spool) {
+        this.capacity = Math.max(1, capacity);
+        this.spool = spool;
+    }
+
+    /**
+     * Adds a point to the buffer.
+     *
+     * @param point the point
+     */
+    public void add(InfluxPoint point) {
+        queued.increment();
+        synchronized (this) {
+            if (points.size() < capacity) {
+                points.add(point);
+                return;
+            }
+        }
+        InfluxPointSpool spool = this.spool;
+        if (spool != null) {
+            synchronized (spoolLock) {
+                if (spool.append(point)) {
+                    spilled.increment();
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+        droppedSinceWarning.incrementAndGet();
+        if (dropWarningLogged.compareAndSet(false, true)) {
+            if (spool == null) {
+                logger.warn(
+                        "InfluxDB buffer of {} points is full, further points are dropped until the database is reachable again. Set 'spoolSize' to keep them on disk.",
+                        capacity);
+            } else {
+                logger.warn(
+                        "InfluxDB buffer of {} points and the spool are full, further points are dropped until the database is reachable again.",
+                        capacity);
+            }
+        } else {
+            logger.debug("Buffer is full, dropped {}", point);
+        }
+    }
+
+    /**
+     * Returns the next points to write, without removing them from the buffer.
+     *
+     * @param maxPoints the maximum number of points
+     * @return the next points
+     */
+    public List<InfluxPoint> peek(int maxPoints) {
+        InfluxPointSpool spool = this.spool;
+        boolean memoryEmpty;
+        synchronized (this) {
+            memoryEmpty = points.isEmpty();
+        }
+        if (memoryEmpty && spool != null) {
+            // the spooled points are loaded in addition to the capacity, a segment is limited in size
+            List<InfluxPoint> spooled;
+            synchronized (spoolLock) {
+                spooled = spool.peek();
+                if (spooled.isEmpty()) {
+                    // an empty or unreadable segment
+                    spool.remove();
+                }
+            }
+            if (!spooled.isEmpty()) {
+                synchronized (this) {
+                    // points added in the meantime are newer than the spooled ones
+                    for (int i = spooled.size() - 1; i >= 0; i--) {
+                        points.addFirst(spooled.get(i));
+                    }
+                    spooledInMemory = spooled.size();
+                }
+                logger.debug("Loaded {} spooled points", spooled.size());
+            }
+        }
+        synchronized (this) {
+            List<InfluxPoint> batch = new ArrayList<>(Math.min(maxPoints, points.size()));
+            Iterator<InfluxPoint> iterator = points.iterator();
+            while (batch.size() < maxPoints && iterator.hasNext()) {
+                batch.add(iterator.next());
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Removes points that have been written successfully.
+     *
+     * @param count the number of points
+     */
+    public void remove(int count) {
+        int removed = 0;
+        boolean segmentWritten;
+        synchronized (this) {
+            while (removed < count && points.poll() != null) {
+                removed++;
+            }
+            int fromSegment = Math.min(removed, spooledInMemory);
+            spooledInMemory -= fromSegment;
+            segmentWritten = fromSegment > 0 && spooledInMemory == 0;
+        }
+        InfluxPointSpool spool = this.spool;
+        if (segmentWritten && spool != null) {
+            synchronized (spoolLock) {
+                spool.remove();
+            }
+        }
+        written.add(removed);
+        if (removed > 0 && dropWarningLogged.compareAndSet(true, false)) {
+            logger.warn("InfluxDB points are written again, {} points have been dropped while the buffer was full",
+                    droppedSinceWarning.getAndSet(0));
+        }
+    }
+
+    /**
+     * @return the number of points waiting to be written
+     */
+    public synchronized int size() {
+        return points.size();
+    }
+
+    public boolean isEmpty() {
+        synchronized (this) {
+            if (!points.isEmpty()) {
+                return false;
+            }
+        }
+        InfluxPointSpool spool = this.spool;
+        if (spool == null) {
+            return true;
+        }
+        synchronized (spoolLock) {
+            return spool.isEmpty();
+        }
+    }
+
+    /**
+     * Spills the points kept in memory to disk (if a spool is configured) and closes the spool.
+     *
+     * @return the number of points that are lost
+     */
+    public synchronized int close() {
+        InfluxPointSpool spool = this.spool;
+        if (spool != null) {
+            // these points have not been written yet and are read again from their segment
+            for (; spooledInMemory > 0; spooledInMemory--) {
+                points.poll();
+            }
+            synchronized (spoolLock) {
+                InfluxPoint point;
+                while ((point = points.peek()) != null && spool.append(point)) {
+                    points.poll();
+                }
+                spool.close();
+            }
+        }
+        int lost = points.size();
+        dropped.add(lost);
+        points.clear();
+        return lost;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(size(), queued.sum(), written.sum(), dropped.sum(), spilled.sum());
+    }
+
+    /**
+     * Counters of the {@link InfluxPointBuffer}
+     *
+     * @param depth the number of points in memory
+     * @param queued the number of points added
+     * @param written the number of points written to the database
+     * @param dropped the number of points dropped because the buffer was full
+     * @param spilled the number of points spilled to disk
+     */
+    public record Statistics(int depth, long queued, long written, long dropped, long spilled) {
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link InfluxPointSpool} stores {@link InfluxPoint}s in memory-mapped segment files, so that points which do not
+ * fit into the memory buffer survive a longer outage of the database (and a restart of openHAB). Segments are
+ * written one after another and read back in the same order. A record consists of its length and the encoded point,
+ * a length of 0 marks the end of a segment. A segment is only deleted by {@link #remove()} after its points have been
+ * written, so that they are read again after a crash.
+ *
+ * This class is not thread-safe, {@link InfluxPointBuffer} serializes all accesses.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointSpool {
+    private static final String SEGMENT_PREFIX = "points-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    private static final byte VALUE_STRING = 0;
+    private static final byte VALUE_DECIMAL = 1;
+    private static final byte VALUE_LONG = 2;
+    private static final byte VALUE_INTEGER = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_BOOLEAN = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxPointSpool.class);
+
+    private final Path directory;
+    private final long maxSize;
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private long sequence;
+
+    private @Nullable FileChannel writeChannel;
+    private @Nullable MappedByteBuffer writeBuffer;
+
+    /**
+     * @param directory the directory for the segment files
+     * @param maxSize the maximum size of all segment files in bytes
+     * @throws IOException if the directory cannot be created or read
+     */
+    public InfluxPointSpool(Path directory, long maxSize) throws IOException {
+        this.directory = directory;
+        this.maxSize = Math.max(maxSize, SEGMENT_SIZE);
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isSegment).sorted().forEach(segments::add);
+        }
+        Path last = segments.peekLast();
+        if (last != null) {
+            String name = last.getFileName().toString();
+            sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))
+                    + 1;
+            logger.info("Found {} segment(s) of InfluxDB points not written yet in '{}'", segments.size(), directory);
+        }
+    }
+
+    private boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)
+                && name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()).chars()
+                        .allMatch(Character::isDigit);
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Appends a point to the current segment.
+     *
+     * @param point the point
+     * @return false if the maximum size is reached or the point could not be written
+     */
+    public boolean append(InfluxPoint point) {
+        byte[] record;
+        try {
+            record = encode(point);
+        } catch (IOException e) {
+            logger.warn("Failed to encode {}: {}", point, e.getMessage());
+            return false;
+        }
+        if (record.length + 2 * Integer.BYTES > SEGMENT_SIZE) {
+            logger.warn("Not spooling {}, the point is too large", point);
+            return false;
+        }
+        try {
+            MappedByteBuffer buffer = writeBuffer;
+            // keep space for the end marker
+            if (buffer == null || buffer.remaining() < record.length + 2 * Integer.BYTES) {
+                if ((segments.size() + 1L) * SEGMENT_SIZE > maxSize) {
+                    return false;
+                }
+                closeWriteSegment();
+                buffer = openWriteSegment();
+            }
+            buffer.putInt(record.length);
+            buffer.put(record);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to spool InfluxDB point: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads the oldest segment without deleting it. If it is the segment currently written, it is closed first, so
+     * that further points are appended to a new segment.
+     *
+     * @return the points of the oldest segment
+     */
+    public List<InfluxPoint> peek() {
+        Path segment = segments.peekFirst();
+        if (segment == null) {
+            return List.of();
+        }
+        if (segments.size() == 1) {
+            closeWriteSegment();
+        }
+
+        List<InfluxPoint> points = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= Integer.BYTES) {
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer record = buffer.slice();
+                record.limit(length);
+                buffer.position(buffer.position() + length);
+                try {
+                    points.add(decode(record));
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    logger.warn("Skipping invalid point in '{}'", segment);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read spooled InfluxDB points from '{}': {}", segment, e.getMessage());
+        }
+        return points;
+    }
+
+    /**
+     * Deletes the oldest segment, after its points have been written.
+     */
+    public void remove() {
+        Path segment = segments.pollFirst();
+        if (segment == null) {
+            return;
+        }
+        if (segments.isEmpty()) {
+            closeWriteSegment();
+        }
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            logger.warn("Failed to delete '{}': {}", segment, e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the segment currently written. The segment files are kept.
+     */
+    public void close() {
+        closeWriteSegment();
+    }
+
+    private MappedByteBuffer openWriteSegment() throws IOException {
+        Path segment = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, sequence++, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        segments.add(segment);
+        writeChannel = channel;
+        writeBuffer = buffer;
+        return buffer;
+    }
+
+    private void closeWriteSegment() {
+        MappedByteBuffer buffer = writeBuffer;
+        FileChannel channel = writeChannel;
+        writeBuffer = null;
+        writeChannel = null;
+        if (buffer != null) {
+            if (buffer.remaining() >= Integer.BYTES) {
+                buffer.putInt(0);
+            }
+            buffer.force();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close segment: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static byte[] encode(InfluxPoint point) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, point.getMeasurementName());
+            out.writeLong(point.getTime().getEpochSecond());
+            out.writeInt(point.getTime().getNano());
+            Object value = point.getValue();
+            if (value instanceof BigDecimal decimal) {
+                out.writeByte(VALUE_DECIMAL);
+                writeString(out, decimal.toString());
+            } else if (value instanceof Long longValue) {
+                out.writeByte(VALUE_LONG);
+                out.writeLong(longValue);
+            } else if (value instanceof Integer intValue) {
+                out.writeByte(VALUE_INTEGER);
+                out.writeInt(intValue);
+            } else if (value instanceof Double doubleValue) {
+                out.writeByte(VALUE_DOUBLE);
+                out.writeDouble(doubleValue);
+            } else if (value instanceof Boolean booleanValue) {
+                out.writeByte(VALUE_BOOLEAN);
+                out.writeBoolean(booleanValue);
+            } else {
+                out.writeByte(VALUE_STRING);
+                writeString(out, String.valueOf(value));
+            }
+            Map<String, String> tags = point.getTags();
+            out.writeInt(tags.size());
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                writeString(out, tag.getKey());
+                writeString(out, tag.getValue());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static InfluxPoint decode(ByteBuffer record) {
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(readString(record));
+        builder.withTime(Instant.ofEpochSecond(record.getLong(), record.getInt()));
+        byte valueType = record.get();
+        Object value = switch (valueType) {
+            case VALUE_DECIMAL -> new BigDecimal(readString(record));
+            case VALUE_LONG -> record.getLong();
+            case VALUE_INTEGER -> record.getInt();
+            case VALUE_DOUBLE -> record.getDouble();
+            case VALUE_BOOLEAN -> record.get() != 0;
+            case VALUE_STRING -> readString(record);
+            default -> throw new IllegalArgumentException("Unknown value type " + valueType);
+        };
+        builder.withValue(value);
+        int tagCount = record.getInt();
+        for (int i = 0; i < tagCount; i++) {
+            builder.withTag(readString(record), readString(record));
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the {@link InfluxPointSpool} and the spooling of the {@link InfluxPointBuffer}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointSpoolTest {
+    private static final long SEGMENT_SIZE = 1024 * 1024;
+    private static final long MAX_SIZE = 4 * SEGMENT_SIZE;
+
+    private @TempDir @NonNullByDefault({}) Path directory;
+
+    private static InfluxPoint point(int index, Object value) {
+        return InfluxPoint.newBuilder("measurement" + index).withTime(Instant.ofEpochSecond(1700000000L + index, 123))
+                .withValue(value).withTag("item", "item" + index).withTag("label", "äöü " + index).build();
+    }
+
+    private static void assertPoint(InfluxPoint actual, InfluxPoint expected) {
+        assertThat(actual.getMeasurementName(), is(expected.getMeasurementName()));
+        assertThat(actual.getTime(), is(expected.getTime()));
+        assertThat(actual.getValue(), is(expected.getValue()));
+        assertThat(actual.getTags(), is(expected.getTags()));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    public void pointsAreReadBackInOrder() throws IOException {
+        List<InfluxPoint> points = List.of(point(0, new BigDecimal("21.50")), point(1, 42L), point(2, 7),
+                point(3, 1.25), point(4, true), point(5, "text"));
+        InfluxPointSpool spool = new InfluxPointSpool(directory, MAX_SIZE);
+        for (InfluxPoint point : points) {
+            assertThat(spool.append(point), is(true));
+        }
+
+        List<InfluxPoint> result = spool.peek();
+
+        assertThat(result.size(), is(points.size()));
+        for (int i = 0; i < points.size(); i++) {
+            assertPoint(result.get(i), points.get(i));
+        }
+        assertThat(spool.isEmpty(), is(false));
+        assertThat(segmentFiles().size(), is(1));
+
+        spool.remove();
+
+        assertThat(spool.isEmpty(), is(true));
+        assertThat(segmentFiles().isEmpty(), is(true));
+    }
+
+    @Test
+    public void pointsSurviveARestart() throws IOException {
+        InfluxPointSpool spool = new InfluxPointSpool(directory, MAX_SIZE);
+        spool.append(point(0, 1L));
+        spool.append(point(1, 2L));
+        spool.close();
+
+        InfluxPointSpool restartedSpool = new InfluxPointSpool(directory, MAX_SIZE);
+        assertThat(restartedSpool.isEmpty(), is(false));
+        restartedSpool.append(point(2, 3L));
+
+        List<InfluxPoint> result = new ArrayList<>(restartedSpool.peek());
+        restartedSpool.remove();
+        result.addAll(restartedSpool.peek());
+        restartedSpool.remove();
+
+        assertThat(result.size(), is(3));
+        assertPoint(result.get(0), point(0, 1L));
+        assertPoint(result.get(2), point(2, 3L));
+        assertThat(restartedSpool.isEmpty(), is(true));
+    }
+
+    @Test
+    public void truncatedSegmentIsRecoveredUpToTheLastCompleteRecord() throws IOException {
+        InfluxPointSpool spool = new InfluxPointSpool(directory, MAX_SIZE);
+        for (int i = 0; i < 10; i++) {
+            spool.append(point(i, (long) i));
+        }
+        spool.close();
+
+        // simulate a crash while the sixth record was written, all records have the same length
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(length, 0);
+            long recordSize = Integer.BYTES + length.getInt(0);
+            channel.truncate(5 * recordSize + recordSize / 2);
+        }
+
+        List<InfluxPoint> result = new InfluxPointSpool(directory, MAX_SIZE).peek();
+
+        assertThat(result.size(), is(5));
+        for (int i = 0; i < 5; i++) {
+            assertPoint(result.get(i), point(i, (long) i));
+        }
+    }
+
+    @Test
+    public void appendFailsIfTheSpoolIsFull() throws IOException {
+        // a single segment
+        InfluxPointSpool spool = new InfluxPointSpool(directory, SEGMENT_SIZE);
+        int appended = 0;
+        while (spool.append(point(appended, (long) appended))) {
+            appended++;
+            assertThat(appended < MAX_SIZE, is(true));
+        }
+
+        assertThat(appended, is(greaterThan(0)));
+        assertThat(segmentFiles().size(), is(1));
+        assertThat(spool.peek().size(), is(appended));
+        assertThat(spool.append(point(0, 0L)), is(false));
+        spool.remove();
+        assertThat(spool.append(point(0, 0L)), is(true));
+    }
+
+    @Test
+    public void bufferSpillsOverflowToTheSpool() throws IOException {
+        InfluxPointBuffer buffer = new InfluxPointBuffer(2, new InfluxPointSpool(directory, MAX_SIZE));
+        for (int i = 0; i < 5; i++) {
+            buffer.add(point(i, (long) i));
+        }
+
+        assertThat(buffer.getStatistics().spilled(), is(3L));
+        assertThat(buffer.getStatistics().dropped(), is(0L));
+
+        List<InfluxPoint> batch = buffer.peek(10);
+        assertThat(batch.size(), is(2));
+        buffer.remove(batch.size());
+        batch = buffer.peek(10);
+        assertThat(batch.size(), is(3));
+        assertPoint(batch.get(0), point(2, 2L));
+        buffer.remove(batch.size());
+
+        assertThat(buffer.isEmpty(), is(true));
+        assertThat(buffer.getStatistics().written(), is(5L));
+    }
+
+    @Test
+    public void bufferWithoutSpoolDropsOverflow() {
+        InfluxPointBuffer buffer = new InfluxPointBuffer(2, null);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(point(i, (long) i));
+        }
+
+        assertThat(buffer.size(), is(2));
+        assertThat(buffer.getStatistics().dropped(), is(3L));
+        assertThat(buffer.getStatistics().queued(), is(5L));
+    }
+
+    @Test
+    public void closeSpillsPointsKeptInMemory() throws IOException {
+        InfluxPointBuffer buffer = new InfluxPointBuffer(10, new InfluxPointSpool(directory, MAX_SIZE));
+        buffer.add(point(0, 0L));
+        buffer.add(point(1, 1L));
+
+        assertThat(buffer.close(), is(0));
+
+        List<InfluxPoint> result = new InfluxPointSpool(directory, MAX_SIZE).peek();
+        assertThat(result.size(), is(2));
+        assertPoint(result.get(1), point(1, 1L));
+    }
+
+    @Test
+    public void spooledPointsAreKeptUntilTheyAreWritten() throws IOException {
+        InfluxPointBuffer buffer = new InfluxPointBuffer(1, new InfluxPointSpool(directory, MAX_SIZE));
+        for (int i = 0; i < 4; i++) {
+            buffer.add(point(i, (long) i));
+        }
+        buffer.remove(buffer.peek(10).size());
+
+        // the spooled points are loaded, but the write fails
+        List<InfluxPoint> batch = buffer.peek(2);
+        assertThat(batch.size(), is(2));
+        assertPoint(batch.get(0), point(1, 1L));
+        assertThat(segmentFiles().size(), is(1));
+
+        // a partial write keeps the segment
+        buffer.remove(1);
+        assertThat(segmentFiles().size(), is(1));
+
+        assertThat(buffer.close(), is(0));
+
+        // after a restart, the points of the segment are read again and are not spooled twice
+        List<InfluxPoint> result = new InfluxPointSpool(directory, MAX_SIZE).peek();
+        assertThat(result.size(), is(3));
+        assertPoint(result.get(0), point(1, 1L));
+    }
+
+    @Test
+    public void segmentIsDeletedAfterItsPointsHaveBeenWritten() throws IOException {
+        InfluxPointBuffer buffer = new InfluxPointBuffer(1, new InfluxPointSpool(directory, MAX_SIZE));
+        for (int i = 0; i < 4; i++) {
+            buffer.add(point(i, (long) i));
+        }
+        buffer.remove(buffer.peek(10).size());
+
+        List<InfluxPoint> batch = buffer.peek(10);
+        assertThat(batch.size(), is(3));
+        // the memory buffer is full, the point is spooled to a new segment
+        buffer.add(point(4, 4L));
+        assertThat(segmentFiles().size(), is(2));
+
+        buffer.remove(3);
+        assertThat(segmentFiles().size(), is(1));
+
+        batch = buffer.peek(10);
+        assertThat(batch.size(), is(1));
+        assertPoint(batch.get(0), point(4, 4L));
+        buffer.remove(1);
+        assertThat(segmentFiles().isEmpty(), is(true));
+        assertThat(buffer.isEmpty(), is(true));
+        assertThat(buffer.getStatistics().written(), is(5L));
+    }
+}
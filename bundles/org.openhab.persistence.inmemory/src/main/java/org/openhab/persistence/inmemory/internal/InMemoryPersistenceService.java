@@ -12,19 +12,15 @@
  */
 package org.openhab.persistence.inmemory.internal;
 
-import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -69,7 +65,9 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
     private final Logger logger = LoggerFactory.getLogger(InMemoryPersistenceService.class);
 
-    private final Map<String, PersistItem> persistMap = new ConcurrentHashMap<>();
+    private final Map<String, ItemBuffer> persistMap = new ConcurrentHashMap<>();
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
     private long maxEntries = MAX_ENTRIES_DEFAULT;
 
     @Activate
@@ -82,22 +80,27 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     public void modified(Map<String, Object> config) {
         maxEntries = ConfigParser.valueAsOrElse(config.get(MAX_ENTRIES_CONFIG), Long.class, MAX_ENTRIES_DEFAULT);
 
-        persistMap.values().forEach(persistItem -> {
-            Lock lock = persistItem.lock();
-            lock.lock();
-            try {
-                while (persistItem.database().size() > maxEntries) {
-                    persistItem.database().pollFirst();
-                }
-            } finally {
-                lock.unlock();
-            }
-        });
+        persistMap.values().forEach(buffer -> buffer.trim(maxEntries));
     }
 
     @Deactivate
     public void deactivate() {
-        logger.debug("InMemory persistence service deactivated.");
+        logger.debug("InMemory persistence service deactivated, {}", getStatistics());
+    }
+
+    /**
+     * Get the memory usage and query performance of this service
+     *
+     * @return the current {@link Statistics}
+     */
+    public Statistics getStatistics() {
+        long entries = 0;
+        long allocatedBytes = 0;
+        for (ItemBuffer buffer : persistMap.values()) {
+            entries += buffer.size();
+            allocatedBytes += buffer.allocatedBytes();
+        }
+        return new Statistics(persistMap.size(), entries, allocatedBytes, queryCount.sum(), queryNanos.sum());
     }
 
     @Override
@@ -112,7 +115,8 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return persistMap.entrySet().stream().map(this::toItemInfo).collect(Collectors.toSet());
+        return persistMap.entrySet().stream().map(this::toItemInfo).filter(Objects::nonNull)
+                .map(Objects::requireNonNull).collect(Collectors.toSet());
     }
 
     @Override
@@ -143,19 +147,12 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return false;
         }
 
-        PersistItem persistItem = persistMap.get(itemName);
-        if (persistItem == null) {
+        ItemBuffer buffer = persistMap.get(itemName);
+        if (buffer == null) {
             return false;
         }
 
-        Lock lock = persistItem.lock();
-        lock.lock();
-        try {
-            List<PersistEntry> toRemove = persistItem.database().stream().filter(e -> applies(e, filter)).toList();
-            toRemove.forEach(persistItem.database()::remove);
-        } finally {
-            lock.unlock();
-        }
+        buffer.remove(beginMillis(filter), endMillis(filter), state -> applies(state, filter));
         return true;
     }
 
@@ -166,23 +163,18 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return List.of();
         }
 
-        PersistItem persistItem = persistMap.get(itemName);
-        if (persistItem == null) {
+        ItemBuffer buffer = persistMap.get(itemName);
+        if (buffer == null) {
             return List.of();
         }
 
-        Lock lock = persistItem.lock();
-        lock.lock();
-
-        Comparator<PersistEntry> comparator = filter.getOrdering() == FilterCriteria.Ordering.ASCENDING
-                ? Comparator.comparing(PersistEntry::timestamp)
-                : Comparator.comparing(PersistEntry::timestamp).reversed();
-
+        long start = System.nanoTime();
         try {
-            return persistItem.database().stream().filter(e -> applies(e, filter)).sorted(comparator)
-                    .map(e -> toHistoricItem(itemName, e)).toList();
+            return buffer.query(itemName, beginMillis(filter), endMillis(filter), state -> applies(state, filter),
+                    filter.getOrdering() == FilterCriteria.Ordering.ASCENDING);
         } finally {
-            lock.unlock();
+            queryCount.increment();
+            queryNanos.add(System.nanoTime() - start);
         }
     }
 
@@ -192,93 +184,57 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         return List.of(PersistenceStrategy.Globals.FORECAST);
     }
 
-    private PersistenceItemInfo toItemInfo(Map.Entry<String, PersistItem> itemEntry) {
-        Lock lock = itemEntry.getValue().lock();
-        lock.lock();
-        try {
-            String name = itemEntry.getKey();
-            Integer count = itemEntry.getValue().database().size();
-            Instant earliest = itemEntry.getValue().database().first().timestamp().toInstant();
-            Instant latest = itemEntry.getValue().database.last().timestamp.toInstant();
-            return new PersistenceItemInfo() {
-
-                @Override
-                public String getName() {
-                    return name;
-                }
-
-                @Override
-                public @Nullable Integer getCount() {
-                    return count;
-                }
-
-                @Override
-                public @Nullable Date getEarliest() {
-                    return Date.from(earliest);
-                }
-
-                @Override
-                public @Nullable Date getLatest() {
-                    return Date.from(latest);
-                }
-            };
-        } finally {
-            lock.unlock();
+    private @Nullable PersistenceItemInfo toItemInfo(Map.Entry<String, ItemBuffer> itemEntry) {
+        ItemBuffer.Info info = itemEntry.getValue().info();
+        if (info == null) {
+            return null;
         }
-    }
+        String name = itemEntry.getKey();
+        return new PersistenceItemInfo() {
 
-    private HistoricItem toHistoricItem(String itemName, PersistEntry entry) {
-        return new HistoricItem() {
             @Override
-            public ZonedDateTime getTimestamp() {
-                return entry.timestamp();
+            public String getName() {
+                return name;
             }
 
             @Override
-            public State getState() {
-                return entry.state();
+            public @Nullable Integer getCount() {
+                return info.count();
             }
 
             @Override
-            public String getName() {
-                return itemName;
+            public @Nullable Date getEarliest() {
+                return new Date(info.earliest());
+            }
+
+            @Override
+            public @Nullable Date getLatest() {
+                return new Date(info.latest());
             }
         };
     }
 
+    private long beginMillis(FilterCriteria filter) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        return beginDate != null ? beginDate.toInstant().toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    private long endMillis(FilterCriteria filter) {
+        ZonedDateTime endDate = filter.getEndDate();
+        return endDate != null ? endDate.toInstant().toEpochMilli() : Long.MAX_VALUE;
+    }
+
     private void internalStore(String itemName, ZonedDateTime timestamp, State state) {
         if (state instanceof UnDefType) {
             return;
         }
 
-        PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName,
-                k -> new PersistItem(new TreeSet<>(Comparator.comparing(PersistEntry::timestamp)),
-                        new ReentrantLock())));
-
-        Lock lock = persistItem.lock();
-        lock.lock();
-        try {
-            persistItem.database().add(new PersistEntry(timestamp, state));
-
-            while (persistItem.database.size() > maxEntries) {
-                persistItem.database().pollFirst();
-            }
-        } finally {
-            lock.unlock();
-        }
+        ItemBuffer buffer = Objects.requireNonNull(persistMap.computeIfAbsent(itemName, k -> new ItemBuffer()));
+        buffer.add(timestamp.toInstant().toEpochMilli(), state, maxEntries);
     }
 
     @SuppressWarnings("unchecked")
-    private boolean applies(PersistEntry entry, FilterCriteria filter) {
-        ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null && beginDate.isAfter(entry.timestamp())) {
-            return false;
-        }
-        ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null && endDate.isBefore(entry.timestamp())) {
-            return false;
-        }
-
+    private boolean applies(State state, FilterCriteria filter) {
         State refState = filter.getState();
         FilterCriteria.Operator operator = filter.getOperator();
         if (refState == null) {
@@ -287,14 +243,14 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
 
         if (operator == FilterCriteria.Operator.EQ) {
-            return entry.state().equals(refState);
+            return state.equals(refState);
         }
 
         if (operator == FilterCriteria.Operator.NEQ) {
-            return !entry.state().equals(refState);
+            return !state.equals(refState);
         }
 
-        if (entry.state() instanceof Comparable comparableState && entry.state.getClass().equals(refState.getClass())) {
+        if (state instanceof Comparable comparableState && state.getClass().equals(refState.getClass())) {
             if (operator == FilterCriteria.Operator.GT) {
                 return comparableState.compareTo(refState) > 0;
             }
@@ -313,9 +269,30 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         return true;
     }
 
-    private record PersistEntry(ZonedDateTime timestamp, State state) {
-    }
+    /**
+     * The {@link Statistics} of the service
+     *
+     * @param items the number of persisted items
+     * @param entries the total number of stored values
+     * @param allocatedBytes the estimated heap memory allocated for the stored values
+     * @param queries the number of queries since activation
+     * @param queryNanos the total time spent in queries (in nanoseconds)
+     */
+    public record Statistics(int items, long entries, long allocatedBytes, long queries, long queryNanos) {
+
+        public double bytesPerEntry() {
+            return entries > 0 ? (double) allocatedBytes / entries : 0;
+        }
 
-    private record PersistItem(TreeSet<PersistEntry> database, Lock lock) {
+        public double averageQueryMicros() {
+            return queries > 0 ? queryNanos / 1000.0 / queries : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d items with %d entries, %d bytes allocated (%.1f bytes/entry), %d queries (%.1f µs average)",
+                    items, entries, allocatedBytes, bytesPerEntry(), queries, averageQueryMicros());
+        }
     }
 }
@@ -0,0 +1,549 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link ItemBuffer} stores the persisted values of a single item in a sorted circular buffer.
+ *
+ * Timestamps (epoch milliseconds) and numeric values are kept in primitive arrays, all other states are kept in a
+ * lazily allocated side table. The unit of {@link QuantityType} values is stored once per buffer, quantities with a
+ * different unit than the first stored quantity are kept in the side table. Writers are serialized by a
+ * {@link StampedLock}, readers use optimistic reads and only fall back to a read lock if they repeatedly collide with
+ * a writer.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ItemBuffer {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_OPTIMISTIC_READS = 3;
+
+    private static final byte TYPE_DECIMAL = 0;
+    private static final byte TYPE_ON = 1;
+    private static final byte TYPE_OFF = 2;
+    private static final byte TYPE_OPEN = 3;
+    private static final byte TYPE_CLOSED = 4;
+    private static final byte TYPE_OTHER = 5;
+    private static final byte TYPE_QUANTITY = 6;
+
+    private final StampedLock lock = new StampedLock();
+
+    // all fields are only modified while holding the write lock
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private @Nullable State @Nullable [] states;
+    private @Nullable Unit<?> unit;
+    private int head;
+    private int size;
+
+    /**
+     * Add a new value to the buffer
+     *
+     * If an entry with the same timestamp already exists, the new value is discarded. If the buffer already contains
+     * {@code maxEntries} values, the oldest value is removed.
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @param state the state to store
+     * @param maxEntries the maximum number of entries (0 = unlimited)
+     */
+    public void add(long timestamp, State state, long maxEntries) {
+        long stamp = lock.writeLock();
+        try {
+            int pos;
+            if (size == 0 || timestamp > timestampAt(size - 1)) {
+                // fast path: most values are appended in chronological order
+                pos = size;
+            } else {
+                pos = search(timestamps, head, size, timestamp);
+                if (pos >= 0) {
+                    return;
+                }
+                pos = -(pos + 1);
+            }
+
+            if (maxEntries > 0 && size >= maxEntries) {
+                int excess = size - (int) maxEntries + 1;
+                if (pos < excess) {
+                    // the new value is older than all retained values and would be removed immediately
+                    return;
+                }
+                removeOldest(excess);
+                pos -= excess;
+            }
+
+            ensureCapacity(size + 1, maxEntries);
+            for (int i = size; i > pos; i--) {
+                move(physical(i - 1), physical(i));
+            }
+            set(physical(pos), timestamp, state);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the oldest values until the buffer contains at most {@code maxEntries} values
+     *
+     * @param maxEntries the maximum number of entries (0 = unlimited)
+     */
+    public void trim(long maxEntries) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (size > maxEntries) {
+                removeOldest(size - (int) maxEntries);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove all values in the given time range that match the filter
+     *
+     * @param begin the (inclusive) begin of the time range in epoch milliseconds
+     * @param end the (inclusive) end of the time range in epoch milliseconds
+     * @param filter the filter that is applied to the state of each value in the range
+     */
+    public void remove(long begin, long end, Predicate<State> filter) {
+        long stamp = lock.writeLock();
+        try {
+            int from = lowerBound(timestamps, head, size, begin);
+            int to = upperBound(timestamps, head, size, end);
+            int write = from;
+            for (int read = from; read < to; read++) {
+                int index = physical(read);
+                if (!filter.test(stateAt(types, values, states, unit, index))) {
+                    if (write != read) {
+                        move(index, physical(write));
+                    }
+                    write++;
+                }
+            }
+            int removed = to - write;
+            if (removed > 0) {
+                for (int read = to; read < size; read++) {
+                    move(physical(read), physical(read - removed));
+                }
+                for (int i = size - removed; i < size; i++) {
+                    clear(physical(i));
+                }
+                size -= removed;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get all values in the given time range that match the filter
+     *
+     * @param itemName the item name that is reported by the returned {@link HistoricItem}s
+     * @param begin the (inclusive) begin of the time range in epoch milliseconds
+     * @param end the (inclusive) end of the time range in epoch milliseconds
+     * @param filter the filter that is applied to the state of each value in the range
+     * @param ascending {@code true} if the result should be sorted by ascending timestamps
+     * @return a list of matching {@link HistoricItem}s
+     */
+    public List<HistoricItem> query(String itemName, long begin, long end, Predicate<State> filter,
+            boolean ascending) {
+        Slice slice = readSlice(begin, end);
+        List<HistoricItem> result = new ArrayList<>(slice.timestamps.length);
+        ZoneId zoneId = ZoneId.systemDefault();
+        for (int i = 0; i < slice.timestamps.length; i++) {
+            int index = ascending ? i : slice.timestamps.length - 1 - i;
+            State state = stateAt(slice.types, slice.values, slice.states, slice.unit, index);
+            if (filter.test(state)) {
+                ZonedDateTime timestamp = ZonedDateTime.ofInstant(Instant.ofEpochMilli(slice.timestamps[index]),
+                        zoneId);
+                result.add(new InMemoryHistoricItem(itemName, timestamp, state));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of stored values, the earliest and the latest timestamp as a consistent snapshot
+     *
+     * @return the {@link Info} or {@code null} if the buffer is empty
+     */
+    public @Nullable Info info() {
+        long stamp = lock.tryOptimisticRead();
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+            @Nullable
+            Info info = readInfo();
+            if (lock.validate(stamp)) {
+                return info;
+            }
+            stamp = lock.tryOptimisticRead();
+        }
+        stamp = lock.readLock();
+        try {
+            return readInfo();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the number of stored values
+     *
+     * @return the number of values
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int currentSize = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                currentSize = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return currentSize;
+    }
+
+    /**
+     * Estimate the heap memory allocated by the value arrays of this buffer
+     *
+     * @return the allocated memory in bytes
+     */
+    public long allocatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            long capacity = timestamps.length;
+            return capacity * (Long.BYTES + Double.BYTES + Byte.BYTES) + (states != null ? capacity * 4 : 0);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private @Nullable Info readInfo() {
+        long[] localTimestamps = timestamps;
+        int localHead = head;
+        int localSize = Math.min(size, localTimestamps.length);
+        if (localSize == 0) {
+            return null;
+        }
+        return new Info(localSize, localTimestamps[localHead % localTimestamps.length],
+                localTimestamps[(localHead + localSize - 1) % localTimestamps.length]);
+    }
+
+    private Slice readSlice(long begin, long end) {
+        long stamp = lock.tryOptimisticRead();
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+            Slice slice = copySlice(begin, end);
+            if (lock.validate(stamp)) {
+                return slice;
+            }
+            stamp = lock.tryOptimisticRead();
+        }
+        stamp = lock.readLock();
+        try {
+            return copySlice(begin, end);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Slice copySlice(long begin, long end) {
+        // read all fields once, the values might be inconsistent if a writer is active and are then discarded
+        long[] localTimestamps = timestamps;
+        double[] localValues = values;
+        byte[] localTypes = types;
+        @Nullable
+        State @Nullable [] localStates = states;
+        @Nullable
+        Unit<?> localUnit = unit;
+        int localHead = head;
+        int capacity = Math.min(Math.min(localTimestamps.length, localValues.length), localTypes.length);
+        int localSize = Math.min(size, capacity);
+
+        int from = lowerBound(localTimestamps, localHead, localSize, begin);
+        int to = Math.max(from, upperBound(localTimestamps, localHead, localSize, end));
+        int count = to - from;
+
+        long[] sliceTimestamps = new long[count];
+        double[] sliceValues = new double[count];
+        byte[] sliceTypes = new byte[count];
+        @Nullable
+        State @Nullable [] sliceStates = localStates == null ? null : new State[count];
+        for (int i = 0; i < count; i++) {
+            int index = (localHead + from + i) % capacity;
+            sliceTimestamps[i] = localTimestamps[index];
+            sliceValues[i] = localValues[index];
+            sliceTypes[i] = localTypes[index];
+            if (localStates != null && sliceStates != null && index < localStates.length) {
+                sliceStates[i] = localStates[index];
+            }
+        }
+        return new Slice(sliceTimestamps, sliceValues, sliceTypes, sliceStates, localUnit);
+    }
+
+    private long timestampAt(int logicalIndex) {
+        return timestamps[physical(logicalIndex)];
+    }
+
+    private int physical(int logicalIndex) {
+        return (head + logicalIndex) % timestamps.length;
+    }
+
+    private void removeOldest(int count) {
+        for (int i = 0; i < count; i++) {
+            clear(head);
+            head = (head + 1) % timestamps.length;
+        }
+        size -= count;
+    }
+
+    private void ensureCapacity(int requiredCapacity, long maxEntries) {
+        int capacity = timestamps.length;
+        if (requiredCapacity <= capacity) {
+            return;
+        }
+        long newCapacity = Math.max((long) capacity * 2, requiredCapacity);
+        if (maxEntries > 0) {
+            newCapacity = Math.min(newCapacity, Math.max(maxEntries, requiredCapacity));
+        }
+        int length = (int) Math.min(newCapacity, Integer.MAX_VALUE - 8);
+
+        long[] newTimestamps = new long[length];
+        double[] newValues = new double[length];
+        byte[] newTypes = new byte[length];
+        @Nullable
+        State @Nullable [] oldStates = states;
+        @Nullable
+        State @Nullable [] newStates = oldStates == null ? null : new State[length];
+        for (int i = 0; i < size; i++) {
+            int index = physical(i);
+            newTimestamps[i] = timestamps[index];
+            newValues[i] = values[index];
+            newTypes[i] = types[index];
+            if (oldStates != null && newStates != null) {
+                newStates[i] = oldStates[index];
+            }
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        types = newTypes;
+        states = newStates;
+        head = 0;
+    }
+
+    private void move(int from, int to) {
+        timestamps[to] = timestamps[from];
+        values[to] = values[from];
+        types[to] = types[from];
+        @Nullable
+        State @Nullable [] localStates = states;
+        if (localStates != null) {
+            localStates[to] = localStates[from];
+        }
+    }
+
+    private void clear(int index) {
+        @Nullable
+        State @Nullable [] localStates = states;
+        if (localStates != null) {
+            localStates[index] = null;
+        }
+    }
+
+    private void set(int index, long timestamp, State state) {
+        timestamps[index] = timestamp;
+        values[index] = 0;
+        if (state == OnOffType.ON) {
+            types[index] = TYPE_ON;
+        } else if (state == OnOffType.OFF) {
+            types[index] = TYPE_OFF;
+        } else if (state == OpenClosedType.OPEN) {
+            types[index] = TYPE_OPEN;
+        } else if (state == OpenClosedType.CLOSED) {
+            types[index] = TYPE_CLOSED;
+        } else if (state.getClass() == DecimalType.class && isExactDouble(((DecimalType) state).toBigDecimal())) {
+            types[index] = TYPE_DECIMAL;
+            values[index] = ((DecimalType) state).doubleValue();
+        } else if (state instanceof QuantityType<?> quantity && isBufferUnit(quantity.getUnit())
+                && isExactDouble(quantity.toBigDecimal())) {
+            types[index] = TYPE_QUANTITY;
+            values[index] = quantity.doubleValue();
+        } else {
+            @Nullable
+            State @Nullable [] localStates = states;
+            if (localStates == null) {
+                localStates = new State[timestamps.length];
+                states = localStates;
+            }
+            types[index] = TYPE_OTHER;
+            localStates[index] = state;
+            return;
+        }
+        clear(index);
+    }
+
+    private boolean isBufferUnit(Unit<?> quantityUnit) {
+        @Nullable
+        Unit<?> localUnit = unit;
+        if (localUnit == null) {
+            unit = quantityUnit;
+            return true;
+        }
+        return localUnit.equals(quantityUnit);
+    }
+
+    private static boolean isExactDouble(BigDecimal value) {
+        double doubleValue = value.doubleValue();
+        return Double.isFinite(doubleValue) && BigDecimal.valueOf(doubleValue).compareTo(value) == 0;
+    }
+
+    private static BigDecimal toBigDecimal(double value) {
+        BigDecimal decimal = BigDecimal.valueOf(value).stripTrailingZeros();
+        // e.g. 100 would be 1E+2 otherwise
+        return decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+    }
+
+    private static State stateAt(byte[] types, double[] values, @Nullable State @Nullable [] states,
+            @Nullable Unit<?> unit, int index) {
+        switch (types[index]) {
+            case TYPE_DECIMAL:
+                return new DecimalType(toBigDecimal(values[index]));
+            case TYPE_QUANTITY:
+                if (unit == null) {
+                    // only possible for inconsistent optimistic reads, which are discarded by the caller
+                    return DecimalType.ZERO;
+                }
+                return new QuantityType<>(toBigDecimal(values[index]), unit);
+            case TYPE_ON:
+                return OnOffType.ON;
+            case TYPE_OFF:
+                return OnOffType.OFF;
+            case TYPE_OPEN:
+                return OpenClosedType.OPEN;
+            case TYPE_CLOSED:
+                return OpenClosedType.CLOSED;
+            default:
+                State state = states != null && index < states.length ? states[index] : null;
+                if (state == null) {
+                    // only possible for inconsistent optimistic reads, which are discarded by the caller
+                    return DecimalType.ZERO;
+                }
+                return state;
+        }
+    }
+
+    /**
+     * Binary search for an exact timestamp, returns the logical index or {@code -(insertion point) - 1}
+     */
+    private static int search(long[] timestamps, int head, int size, long timestamp) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midValue = timestamps[(head + mid) % timestamps.length];
+            if (midValue < timestamp) {
+                low = mid + 1;
+            } else if (midValue > timestamp) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Find the logical index of the first entry with a timestamp greater or equal than the given timestamp
+     */
+    private static int lowerBound(long[] timestamps, int head, int size, long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[(head + mid) % timestamps.length] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the logical index of the first entry with a timestamp greater than the given timestamp
+     */
+    private static int upperBound(long[] timestamps, int head, int size, long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[(head + mid) % timestamps.length] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A snapshot of the number of values and the earliest and latest timestamp (in epoch milliseconds)
+     */
+    public record Info(int count, long earliest, long latest) {
+    }
+
+    private record Slice(long[] timestamps, double[] values, byte[] types, @Nullable State @Nullable [] states,
+            @Nullable Unit<?> unit) {
+    }
+
+    private record InMemoryHistoricItem(String name, ZonedDateTime timestamp, State state) implements HistoricItem {
+        @Override
+        public ZonedDateTime getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -16,11 +16,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -34,7 +36,9 @@ import org.mockito.quality.Strictness;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -127,6 +131,20 @@ public class InMemoryPersistenceTests {
         assertThat(storedStates.first().getTimestamp(), is(expectedTime));
     }
 
+    @Test
+    public void storedNumbersKeepAPlainScale() {
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new DecimalType(100));
+        service.store(item, start.plusHours(1), new DecimalType(new BigDecimal("12.50")));
+
+        List<String> values = new ArrayList<>();
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        service.query(filterCriteria)
+                .forEach(h -> values.add(((DecimalType) h.getState()).toBigDecimal().toString()));
+
+        assertThat(values, is(List.of("100", "12.5")));
+    }
+
     @Test
     public void queryWithoutItemNameReturnsEmptyList() {
         TreeSet<HistoricItem> storedStates = new TreeSet<>(Comparator.comparing(HistoricItem::getTimestamp));
@@ -275,4 +293,111 @@ public class InMemoryPersistenceTests {
 
         // begin date is before first date is already covered by case #1
     }
+
+    @Test
+    public void maxEntriesRemovesOldestValues() {
+        service.activate(Map.of("maxEntries", 3L));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 40; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(37, 38, 39));
+
+        // a value older than all stored values is discarded immediately
+        service.store(item, start, new DecimalType(100));
+        resultSet.clear();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(37, 38, 39));
+    }
+
+    @Test
+    public void maxEntriesZeroDisablesPurging() {
+        service.activate(Map.of("maxEntries", 0L));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 1000; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+
+        List<HistoricItem> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(resultSet::add);
+
+        assertThat(resultSet, hasSize(1000));
+        assertThat(service.getStatistics().entries(), is(1000L));
+    }
+
+    @Test
+    public void outOfOrderValuesAreSorted() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        int[] order = { 5, 1, 9, 3, 7, 0, 8, 2, 6, 4 };
+        for (int i : order) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        filterCriteria.setBeginDate(start.plusHours(2));
+        filterCriteria.setEndDate(start.plusHours(6));
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(2, 3, 4, 5, 6));
+    }
+
+    @Test
+    public void mixedStateTypesAreRestored() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        List<State> states = List.of(new DecimalType("12.345"), OnOffType.ON, new QuantityType<>("21.5 °C"),
+                new PercentType(42), new StringType("text"), OnOffType.OFF, new DecimalType(-3));
+        for (int i = 0; i < states.size(); i++) {
+            service.store(item, start.plusMinutes(i), states.get(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        List<State> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(h.getState()));
+
+        assertThat(resultSet, is(states));
+        assertThat(resultSet.get(3), is(instanceOf(PercentType.class)));
+    }
+
+    @Test
+    public void quantitiesWithDifferentUnitsAreRestored() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        List<State> states = List.of(new QuantityType<>("21.5 °C"), new QuantityType<>("22 °C"),
+                new QuantityType<>("70.25 °F"), new QuantityType<>("-3.125 °C"));
+        for (int i = 0; i < states.size(); i++) {
+            service.store(item, start.plusMinutes(i), states.get(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        List<State> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(h.getState()));
+
+        assertThat(resultSet, is(states));
+    }
+
+    @Test
+    public void stateFilterIsApplied() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        filterCriteria.setOperator(FilterCriteria.Operator.GTE);
+        filterCriteria.setState(new DecimalType(7));
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(7, 8, 9));
+        assertThat(service.getStatistics().queries(), is(1L));
+    }
 }
@@ -45,6 +45,7 @@ import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
 import org.openhab.persistence.jdbc.internal.dto.Column;
+import org.openhab.persistence.jdbc.internal.dto.ItemValue;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
@@ -77,6 +78,9 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID));
 
+    private @Nullable WriteBehindQueue writeBehindQueue;
+    private @Nullable JdbcQueueMetrics queueMetrics;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -98,6 +102,12 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void activate(BundleContext bundleContext, Map<Object, Object> configuration) {
         logger.debug("JDBC::activate: persistence service activated");
         updateConfig(configuration);
+        JdbcQueueMetrics queueMetrics = new JdbcQueueMetrics(bundleContext, () -> {
+            WriteBehindQueue writeBehindQueue = this.writeBehindQueue;
+            return writeBehindQueue != null ? writeBehindQueue.getStatistics().depth() : 0;
+        });
+        queueMetrics.open();
+        this.queueMetrics = queueMetrics;
     }
 
     /**
@@ -121,6 +131,12 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        JdbcQueueMetrics queueMetrics = this.queueMetrics;
+        if (queueMetrics != null) {
+            queueMetrics.close();
+            this.queueMetrics = null;
+        }
+        stopWriteBehindQueue();
         initialized = false;
     }
 
@@ -137,24 +153,39 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     @Override
     public void store(Item item) {
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        internalStoreAsync(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        internalStoreAsync(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state) {
-        scheduler.execute(() -> internalStore(item, date, state));
+        internalStoreAsync(item, date, state);
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, date, state));
+        internalStoreAsync(item, date, state);
+    }
+
+    private void internalStoreAsync(Item item, @Nullable ZonedDateTime date, State state) {
+        WriteBehindQueue writeBehindQueue = this.writeBehindQueue;
+        if (writeBehindQueue == null) {
+            scheduler.execute(() -> internalStore(item, date, state));
+            return;
+        }
+        // Do not store undefined/uninitialized data
+        if (state instanceof UnDefType) {
+            logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
+            return;
+        }
+        // the time is taken now, since the value is written later
+        writeBehindQueue.add(item, new ItemValue(state, date != null ? date : ZonedDateTime.now()));
     }
 
     private synchronized void internalStore(Item item, @Nullable ZonedDateTime date, State state) {
@@ -181,6 +212,46 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    private synchronized boolean internalStore(Item item, List<ItemValue> values) {
+        if (!checkDBAccessability()) {
+            logger.warn(
+                    "JDBC::store: No connection to database. Cannot persist {} states for item '{}'! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
+                    values.size(), item, errCnt, conf.getErrReconnectThreshold());
+            return false;
+        }
+        try {
+            long timerStart = System.currentTimeMillis();
+            storeItemValues(item, values);
+            if (logger.isDebugEnabled()) {
+                logger.debug("JDBC: Stored {} states of item '{}' in SQL database at {} in {} ms.", values.size(),
+                        item.getName(), new Date(), System.currentTimeMillis() - timerStart);
+            }
+            return true;
+        } catch (JdbcException e) {
+            logger.warn("JDBC::store: Unable to store item", e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the counters of the write-behind queue.
+     *
+     * @return the statistics or null if batching is disabled
+     */
+    public WriteBehindQueue.@Nullable Statistics getWriteBehindStatistics() {
+        WriteBehindQueue writeBehindQueue = this.writeBehindQueue;
+        return writeBehindQueue != null ? writeBehindQueue.getStatistics() : null;
+    }
+
+    private void stopWriteBehindQueue() {
+        WriteBehindQueue writeBehindQueue = this.writeBehindQueue;
+        if (writeBehindQueue != null) {
+            // values added while stopping are still written by the queue, so it is detached afterwards
+            writeBehindQueue.stop();
+            this.writeBehindQueue = null;
+        }
+    }
+
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
         return getItems();
@@ -256,7 +327,14 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteBehindQueue();
         conf = new JdbcConfiguration(configuration);
+        if (conf.isBatchingEnabled()) {
+            WriteBehindQueue writeBehindQueue = new WriteBehindQueue(scheduler, this::internalStore,
+                    conf.getBatchSize(), conf.getBatchQueueSize(), conf.getBatchInterval());
+            writeBehindQueue.start();
+            this.writeBehindQueue = writeBehindQueue;
+        }
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
             try {
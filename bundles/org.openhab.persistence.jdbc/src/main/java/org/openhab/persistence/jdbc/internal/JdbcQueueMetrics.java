@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.metrics.AddonMetrics;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link JdbcQueueMetrics} publishes the depth of the write-behind queue as a gauge of the {@link AddonMetrics}
+ * of the metrics add-on. The metrics add-on is optional: its service is tracked by class name, and its classes are
+ * only used once the service is available.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class JdbcQueueMetrics implements ServiceTrackerCustomizer<Object, Object> {
+    private static final String ADDON_METRICS = "org.openhab.io.metrics.AddonMetrics";
+    private static final String QUEUE_NAME = "writeBehind";
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcQueueMetrics.class);
+
+    private final BundleContext bundleContext;
+    private final Supplier<Number> depth;
+    private final ServiceTracker<Object, Object> tracker;
+
+    /**
+     * @param bundleContext the context of the JDBC bundle
+     * @param depth supplies the number of values waiting in the write-behind queue
+     */
+    JdbcQueueMetrics(BundleContext bundleContext, Supplier<Number> depth) {
+        this.bundleContext = bundleContext;
+        this.depth = depth;
+        this.tracker = new ServiceTracker<>(bundleContext, ADDON_METRICS, this);
+    }
+
+    void open() {
+        tracker.open();
+    }
+
+    void close() {
+        tracker.close();
+    }
+
+    @Override
+    public @Nullable Object addingService(ServiceReference<Object> reference) {
+        Object service = bundleContext.getService(reference);
+        if (service == null) {
+            return null;
+        }
+        try {
+            ((AddonMetrics) service).registerQueueDepth(JdbcPersistenceServiceConstants.SERVICE_ID, QUEUE_NAME,
+                    depth);
+            logger.debug("JDBC::metrics: publishing the depth of the write-behind queue");
+            return service;
+        } catch (NoClassDefFoundError | ClassCastException e) {
+            // the metrics add-on has been installed after this bundle was resolved
+            logger.debug("JDBC::metrics: add-on metrics are not available to this bundle: {}", e.getMessage());
+            bundleContext.ungetService(reference);
+            return null;
+        }
+    }
+
+    @Override
+    public void modifiedService(ServiceReference<Object> reference, Object service) {
+    }
+
+    @Override
+    public void removedService(ServiceReference<Object> reference, Object service) {
+        ((AddonMetrics) service).removeMeters(JdbcPersistenceServiceConstants.SERVICE_ID);
+        bundleContext.ungetService(reference);
+    }
+}
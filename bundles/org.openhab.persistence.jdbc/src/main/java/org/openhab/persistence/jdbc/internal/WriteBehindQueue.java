@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.Item;
+import org.openhab.persistence.jdbc.internal.dto.ItemValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link WriteBehindQueue} collects item values in bounded per-item (and therefore per-table) queues and passes
+ * them to a {@link Writer} in batches. A flush is triggered when a queue reaches the batch size or when the flush
+ * interval has elapsed. If a queue is full, the caller is blocked for up to one flush interval before the value is
+ * dropped. Values of a failed write are kept and written with the next flush, up to {@link #MAX_WRITE_ATTEMPTS}
+ * attempts.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class WriteBehindQueue {
+
+    /**
+     * Writes a batch of values of a single item to the database.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        /**
+         * @return true if the values have been stored
+         */
+        boolean write(Item item, List<ItemValue> values);
+    }
+
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private final Map<String, ItemQueue> queues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Writer writer;
+    private final int batchSize;
+    private final int queueSize;
+    private final long flushInterval;
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private volatile boolean stopped;
+
+    /**
+     * @param scheduler the (single-threaded) scheduler used for flushing
+     * @param writer the writer that stores the values
+     * @param batchSize the number of values per item that triggers a flush
+     * @param queueSize the maximum number of pending values per item
+     * @param flushInterval the maximum time (in milliseconds) a value is kept in the queue
+     */
+    public WriteBehindQueue(ScheduledExecutorService scheduler, Writer writer, int batchSize, int queueSize,
+            long flushInterval) {
+        this.scheduler = scheduler;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.queueSize = Math.max(queueSize, batchSize);
+        this.flushInterval = flushInterval;
+    }
+
+    public void start() {
+        flushJob = scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic flush and writes all pending values. Values added afterwards are written immediately.
+     */
+    public void stop() {
+        stopped = true;
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        try {
+            scheduler.submit(this::flush).get(Math.max(flushInterval, 1000) * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("JDBC::stop: Failed to write pending values: {}", e.getMessage());
+        }
+        long pending = getStatistics().depth();
+        if (pending > 0) {
+            logger.warn("JDBC::stop: {} values could not be written and are discarded", pending);
+        }
+    }
+
+    /**
+     * Adds a value to the queue of the item.
+     *
+     * @return false if the queue was full and the value has been dropped
+     */
+    public boolean add(Item item, ItemValue value) {
+        ItemQueue queue = queues.computeIfAbsent(item.getName(), k -> new ItemQueue(item, queueSize));
+        queue.item = item;
+        if (!queue.values.offer(value)) {
+            requestFlush();
+            try {
+                if (!queue.values.offer(value, flushInterval, TimeUnit.MILLISECONDS)) {
+                    dropped.increment();
+                    logger.warn("JDBC::store: Queue for item '{}' is full, dropping state '{}'", item.getName(),
+                            value.state());
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+                return false;
+            }
+        }
+        queued.increment();
+        if (stopped) {
+            // the final flush of stop() might have missed this value
+            scheduler.execute(this::flush);
+        } else if (queue.values.size() >= batchSize) {
+            requestFlush();
+        }
+        return true;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    private synchronized void flush() {
+        flushRequested.set(false);
+        long start = System.nanoTime();
+        int count = 0;
+        for (ItemQueue queue : queues.values()) {
+            List<ItemValue> values = new ArrayList<>(queue.failed);
+            queue.values.drainTo(values);
+            if (values.isEmpty()) {
+                continue;
+            }
+            boolean success;
+            try {
+                success = writer.write(queue.item, values);
+            } catch (RuntimeException e) {
+                logger.warn("JDBC::flush: Unable to store {} values of item '{}'", values.size(),
+                        queue.item.getName(), e);
+                success = false;
+            }
+            if (success) {
+                written.add(values.size());
+                count += values.size();
+                queue.failed = List.of();
+                queue.attempts = 0;
+            } else if (++queue.attempts < MAX_WRITE_ATTEMPTS) {
+                logger.debug("JDBC::flush: Writing {} values of item '{}' failed, retrying with the next flush",
+                        values.size(), queue.item.getName());
+                queue.failed = values;
+            } else {
+                logger.warn("JDBC::flush: Writing {} values of item '{}' failed {} times, dropping them",
+                        values.size(), queue.item.getName(), queue.attempts);
+                dropped.add(values.size());
+                queue.failed = List.of();
+                queue.attempts = 0;
+            }
+        }
+        if (count > 0) {
+            long duration = System.nanoTime() - start;
+            flushes.increment();
+            flushNanos.add(duration);
+            maxFlushNanos.accumulateAndGet(duration, Math::max);
+            logger.debug("JDBC::flush: Stored {} values in {} ms", count, TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+    }
+
+    public Statistics getStatistics() {
+        long depth = queues.values().stream().mapToLong(queue -> queue.values.size() + queue.failed.size()).sum();
+        return new Statistics(depth, queued.sum(), written.sum(), dropped.sum(), flushes.sum(), flushNanos.sum(),
+                maxFlushNanos.get());
+    }
+
+    /**
+     * Counters of the {@link WriteBehindQueue}
+     *
+     * @param depth the number of values currently waiting to be written
+     * @param queued the number of values added to the queue
+     * @param written the number of values stored by the writer
+     * @param dropped the number of values dropped because the queue was full or all write attempts failed
+     * @param flushes the number of flushes that wrote at least one value
+     * @param flushNanos the total time spent in these flushes
+     * @param maxFlushNanos the longest flush
+     */
+    public record Statistics(long depth, long queued, long written, long dropped, long flushes, long flushNanos,
+            long maxFlushNanos) {
+
+        public long averageFlushMillis() {
+            return flushes > 0 ? TimeUnit.NANOSECONDS.toMillis(flushNanos / flushes) : 0;
+        }
+
+        public long maxFlushMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxFlushNanos);
+        }
+    }
+
+    private static class ItemQueue {
+        private final BlockingQueue<ItemValue> values;
+        private volatile Item item;
+        // values of the last failed write, only modified by flush()
+        private volatile List<ItemValue> failed = List.of();
+        private int attempts;
+
+        private ItemQueue(Item item, int capacity) {
+            this.item = item;
+            this.values = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
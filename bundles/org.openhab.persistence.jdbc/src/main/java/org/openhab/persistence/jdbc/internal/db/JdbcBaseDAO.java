@@ -18,8 +18,12 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -58,6 +62,7 @@ import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.dto.ItemValue;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
@@ -95,7 +100,10 @@ public class JdbcBaseDAO {
     protected String sqlGetTableColumnTypes = "SELECT column_name, column_type, is_nullable FROM information_schema.columns WHERE table_schema='#jdbcUriDatabaseName#' AND table_name='#tableName#'";
     protected String sqlCreateItemTable = "CREATE TABLE IF NOT EXISTS #tableName# (time #tablePrimaryKey# NOT NULL, value #dbType#, PRIMARY KEY(time))";
     protected String sqlAlterTableColumn = "ALTER TABLE #tableName# MODIFY COLUMN #columnName# #columnType#";
-    protected String sqlInsertItemValue = "INSERT INTO #tableName# (time, value) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
+    protected String sqlInsertItemValue = "INSERT INTO #tableName# (time, value) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)";
+    // multi-row insert, set to null if not supported by the database. Then a JDBC batch of sqlInsertItemValue is used.
+    protected @Nullable String sqlInsertItemValues = "INSERT INTO #tableName# (time, value) VALUES #valueRows# ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)";
+    protected String sqlInsertItemValuesRow = "( ?, ? )";
     protected String sqlGetRowCount = "SELECT COUNT(*) FROM #tableName#";
 
     /********
@@ -433,7 +441,7 @@ public class JdbcBaseDAO {
         String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#tablePrimaryValue#" },
                 new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = { storedVO.getValue(), storedVO.getValue() };
+        Object[] params = { storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -447,7 +455,7 @@ public class JdbcBaseDAO {
         String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
+        Object[] params = { timestamp, storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -456,6 +464,87 @@ public class JdbcBaseDAO {
         }
     }
 
+    /**
+     * Stores several values of one item with as few database round trips as possible.
+     *
+     * If the database supports multi-row inserts ({@link #sqlInsertItemValues} is set), the values are written with
+     * one statement per {@link #MAX_ROWS_PER_INSERT} rows, otherwise a JDBC batch of {@link #sqlInsertItemValue} is
+     * executed.
+     */
+    public void doStoreItemValues(Item item, String tableName, List<ItemValue> values) throws JdbcSQLException {
+        if (values.isEmpty()) {
+            return;
+        }
+        // only the latest value per timestamp is kept, a multi-row upsert must not contain the same key twice
+        Map<Long, ItemVO> rows = new LinkedHashMap<>();
+        for (ItemValue value : values) {
+            long time = value.timestamp().toInstant().toEpochMilli();
+            rows.remove(time);
+            rows.put(time, storeItemValueProvider(item, value.state(), new ItemVO(tableName, null)));
+        }
+        List<Object[]> params = new ArrayList<>(rows.size());
+        ItemVO storedVO = null;
+        for (Map.Entry<Long, ItemVO> row : rows.entrySet()) {
+            storedVO = row.getValue();
+            params.add(new Object[] { new java.sql.Timestamp(row.getKey()), storedVO.getValue() });
+        }
+        if (storedVO == null) {
+            return;
+        }
+
+        if (sqlInsertItemValues != null) {
+            for (int start = 0; start < params.size(); start += MAX_ROWS_PER_INSERT) {
+                List<Object[]> chunk = params.subList(start, Math.min(start + MAX_ROWS_PER_INSERT, params.size()));
+                String sql = insertItemValuesProvider(storedVO, chunk.size());
+                logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, chunk.size());
+                try {
+                    Yank.execute(sql, chunk.stream().flatMap(Arrays::stream).toArray());
+                } catch (YankSQLException e) {
+                    // e.g. a duplicate key on databases without upsert, which fails the whole statement
+                    logger.debug("JDBC::doStoreItemValues multi-row insert failed, inserting row by row: {}",
+                            e.getMessage());
+                    doStoreItemValueRows(storedVO, chunk);
+                }
+            }
+        } else {
+            String sql = insertItemValueBatchProvider(storedVO);
+            logger.debug("JDBC::doStoreItemValues sql={} batch={}", sql, params.size());
+            try {
+                Yank.executeBatch(sql, params.toArray(new Object[0][]));
+            } catch (YankSQLException e) {
+                logger.debug("JDBC::doStoreItemValues batch insert failed, inserting row by row: {}", e.getMessage());
+                doStoreItemValueRows(storedVO, params);
+            }
+        }
+    }
+
+    /**
+     * Inserts the rows one by one, so that a failing row does not prevent storing the others.
+     *
+     * @throws JdbcSQLException if no row could be stored
+     */
+    private void doStoreItemValueRows(ItemVO storedVO, List<Object[]> rows) throws JdbcSQLException {
+        String sql = insertItemValueBatchProvider(storedVO);
+        @Nullable
+        YankSQLException lastException = null;
+        int failed = 0;
+        for (Object[] row : rows) {
+            try {
+                Yank.execute(sql, row);
+            } catch (YankSQLException e) {
+                lastException = e;
+                failed++;
+            }
+        }
+        if (lastException != null) {
+            if (failed == rows.size()) {
+                throw new JdbcSQLException(lastException);
+            }
+            logger.warn("JDBC::doStoreItemValues {} of {} rows in table '{}' could not be stored: {}", failed,
+                    rows.size(), storedVO.getTableName(), lastException.getMessage());
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
         String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
@@ -504,6 +593,24 @@ public class JdbcBaseDAO {
      * Providers *
      *************/
     static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final int MAX_ROWS_PER_INSERT = 1000;
+
+    protected String insertItemValuesProvider(ItemVO storedVO, int rowCount) {
+        String sqlInsert = Objects.requireNonNull(sqlInsertItemValues);
+        String valueRow = sqlInsertItemValuesRow.replace("#dbType#", storedVO.getDbType());
+        String valueRows = String.join(", ", Collections.nCopies(rowCount, valueRow));
+        return StringUtilsExt.replaceArrayMerge(sqlInsert, new String[] { "#tableName#", "#valueRows#" },
+                new String[] { storedVO.getTableName(), valueRows });
+    }
+
+    /**
+     * Provides the statement for JDBC batch inserts. Parameters are the timestamp and the value of each row.
+     */
+    protected String insertItemValueBatchProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                new String[] { storedVO.getTableName(), storedVO.getDbType(), "?" });
+    }
 
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -67,6 +67,7 @@ public class JdbcHsqldbDAO extends JdbcBaseDAO {
                 USING (VALUES #tablePrimaryValue#, CAST( ? as #dbType#)) temp (TIME, VALUE) ON (#tableName#.TIME=temp.TIME) \
                 WHEN NOT MATCHED THEN INSERT (TIME, VALUE) VALUES (temp.TIME, temp.VALUE)\
                 """;
+        sqlInsertItemValues = null;
     }
 
     /**
@@ -163,6 +164,13 @@ public class JdbcHsqldbDAO extends JdbcBaseDAO {
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected String insertItemValueBatchProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" },
+                new String[] { storedVO.getTableName(), storedVO.getDbType(), storedVO.getTableName(), "?" });
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
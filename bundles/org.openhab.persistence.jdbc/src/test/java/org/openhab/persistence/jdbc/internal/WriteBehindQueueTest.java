@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.jdbc.internal.dto.ItemValue;
+
+/**
+ * Tests the {@link WriteBehindQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class WriteBehindQueueTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<List<ItemValue>> batches = new ArrayList<>();
+    private int failures;
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized boolean write(Item item, List<ItemValue> values) {
+        if (failures > 0) {
+            failures--;
+            return false;
+        }
+        batches.add(values);
+        return true;
+    }
+
+    @Test
+    void batchSizeTriggersFlush() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(scheduler, this::write, 5, 100, 60000);
+        NumberItem item = new NumberItem("item");
+        for (int i = 0; i < 5; i++) {
+            queue.add(item, new ItemValue(new DecimalType(i), ZonedDateTime.now()));
+        }
+        scheduler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(queue.getStatistics().written(), is(5L));
+        assertThat(queue.getStatistics().depth(), is(0L));
+    }
+
+    @Test
+    void stopWritesPendingValues() {
+        WriteBehindQueue queue = new WriteBehindQueue(scheduler, this::write, 100, 100, 60000);
+        queue.start();
+        NumberItem item = new NumberItem("item");
+        for (int i = 0; i < 3; i++) {
+            queue.add(item, new ItemValue(new DecimalType(i), ZonedDateTime.now()));
+        }
+        assertThat(queue.getStatistics().depth(), is(3L));
+
+        queue.stop();
+
+        assertThat(queue.getStatistics().written(), is(3L));
+        assertThat(batches.size(), is(1));
+    }
+
+    @Test
+    void fullQueueDropsValues() {
+        WriteBehindQueue queue = new WriteBehindQueue(scheduler, this::write, 100, 100, 10);
+        // block the scheduler so that the queue can not be flushed
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            NumberItem item = new NumberItem("item");
+            for (int i = 0; i < 100; i++) {
+                assertThat(queue.add(item, new ItemValue(new DecimalType(i), ZonedDateTime.now())), is(true));
+            }
+            assertThat(queue.add(item, new ItemValue(new DecimalType(100), ZonedDateTime.now())), is(false));
+            assertThat(queue.getStatistics().dropped(), is(1L));
+            assertThat(queue.getStatistics().depth(), is(100L));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    void failedWriteIsRetried() throws Exception {
+        failures = 1;
+        WriteBehindQueue queue = new WriteBehindQueue(scheduler, this::write, 2, 100, 60000);
+        NumberItem item = new NumberItem("item");
+        queue.add(item, new ItemValue(new DecimalType(0), ZonedDateTime.now()));
+        queue.add(item, new ItemValue(new DecimalType(1), ZonedDateTime.now()));
+        scheduler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(queue.getStatistics().written(), is(0L));
+        assertThat(queue.getStatistics().depth(), is(2L));
+
+        queue.add(item, new ItemValue(new DecimalType(2), ZonedDateTime.now()));
+        queue.add(item, new ItemValue(new DecimalType(3), ZonedDateTime.now()));
+        scheduler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(queue.getStatistics().written(), is(4L));
+        assertThat(queue.getStatistics().dropped(), is(0L));
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0).get(0).state(), is(new DecimalType(0)));
+    }
+
+    @Test
+    void failedWriteIsDroppedAfterMaxAttempts() {
+        failures = WriteBehindQueue.MAX_WRITE_ATTEMPTS;
+        WriteBehindQueue queue = new WriteBehindQueue(scheduler, this::write, 100, 100, 60000);
+        NumberItem item = new NumberItem("item");
+        queue.add(item, new ItemValue(new DecimalType(0), ZonedDateTime.now()));
+        for (int i = 0; i < WriteBehindQueue.MAX_WRITE_ATTEMPTS - 1; i++) {
+            queue.stop();
+            assertThat(queue.getStatistics().depth(), is(1L));
+        }
+        queue.stop();
+
+        assertThat(queue.getStatistics().depth(), is(0L));
+        assertThat(queue.getStatistics().dropped(), is(1L));
+        assertThat(queue.getStatistics().written(), is(0L));
+    }
+
+    @Test
+    void valueAddedAfterStopIsWritten() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(scheduler, this::write, 100, 100, 60000);
+        queue.start();
+        queue.stop();
+        NumberItem item = new NumberItem("item");
+        queue.add(item, new ItemValue(new DecimalType(0), ZonedDateTime.now()));
+        scheduler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(queue.getStatistics().written(), is(1L));
+    }
+}
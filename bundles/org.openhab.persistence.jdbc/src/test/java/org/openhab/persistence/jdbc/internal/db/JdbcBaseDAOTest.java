@@ -66,6 +66,7 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -249,6 +250,56 @@ public class JdbcBaseDAOTest {
                         + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
     }
 
+    @Test
+    void insertItemValuesProviderReturnsMultiRowInsert() {
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValueTypes("DOUBLE", Double.class);
+
+        String sql = jdbcBaseDAO.insertItemValuesProvider(vo, 3);
+        assertThat(sql, is("INSERT INTO " + DB_TABLE_NAME
+                + " (time, value) VALUES ( ?, ? ), ( ?, ? ), ( ?, ? ) ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)"));
+    }
+
+    private static Stream<JdbcBaseDAO> daos() {
+        return Stream.of(new JdbcBaseDAO(), new JdbcDerbyDAO(), new JdbcH2DAO(), new JdbcHsqldbDAO(),
+                new JdbcMariadbDAO(), new JdbcMysqlDAO(), new JdbcPostgresqlDAO(), new JdbcSqliteDAO(),
+                new JdbcTimescaledbDAO());
+    }
+
+    @ParameterizedTest
+    @MethodSource("daos")
+    void insertItemValueBatchProviderBindsTimestampAndValue(JdbcBaseDAO dao) {
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValueTypes("DOUBLE", Double.class);
+
+        // the statement is used for JDBC batches and for the row by row fallback, both bind two parameters per row
+        String sql = dao.insertItemValueBatchProvider(vo);
+        assertThat(sql.contains("#"), is(false));
+        assertThat(sql.chars().filter(c -> c == '?').count(), is(2L));
+    }
+
+    @Test
+    void insertItemValueBatchProviderReturnsUpsert() {
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValueTypes("DOUBLE", Double.class);
+
+        String sql = jdbcBaseDAO.insertItemValueBatchProvider(vo);
+        assertThat(sql, is("INSERT INTO " + DB_TABLE_NAME
+                + " (time, value) VALUES( ?, ? ) ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)"));
+    }
+
+    @Test
+    void insertItemValueBatchProviderReturnsHsqldbMerge() {
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValueTypes("DOUBLE", Double.class);
+
+        String sql = new JdbcHsqldbDAO().insertItemValueBatchProvider(vo);
+        assertThat(sql, is("MERGE INTO " + DB_TABLE_NAME //
+                + " USING (VALUES ?, CAST( ? as DOUBLE)) temp (TIME, VALUE)" //
+                + " ON (" + DB_TABLE_NAME + ".TIME=temp.TIME)" //
+                + " WHEN NOT MATCHED THEN INSERT (TIME, VALUE) VALUES (temp.TIME, temp.VALUE)"));
+    }
+
     private ZonedDateTime parseDateTimeString(String dts) {
         return ZonedDateTime.of(LocalDateTime.parse(dts, DATE_PARSER), UTC_ZONE_ID);
     }
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jpa.internal;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,12 +36,16 @@ public class JpaConfiguration {
     private static final String CFG_USERNAME = "user";
     private static final String CFG_PASSWORD = "password";
     private static final String CFG_SYNCMAPPING = "syncmappings";
+    private static final String CFG_BATCH_SIZE = "batchSize";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
 
     public final String dbConnectionUrl;
     public final String dbDriverClass;
     public final String dbUserName;
     public final String dbPassword;
     public final String dbSyncMapping;
+    public final int batchSize;
 
     public JpaConfiguration(final Map<String, @Nullable Object> properties) throws IllegalArgumentException {
         logger.debug("Creating JPA config...");
@@ -81,6 +86,16 @@ public class JpaConfiguration {
         }
         dbSyncMapping = param == null ? "" : param;
 
+        Object value = properties.get(CFG_BATCH_SIZE);
+        try {
+            batchSize = value == null ? DEFAULT_BATCH_SIZE : new BigDecimal(value.toString()).intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid batch size in JPA configuration: " + value);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size in JPA configuration must be at least 1!");
+        }
+
         logger.debug("Creating JPA config... done");
     }
 }
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jpa.internal;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.persistence.jpa.internal.model.JpaPersistentItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+/**
+ * The {@link JpaItemWriter} persists items on a dedicated thread. Items are queued by {@link #add(JpaPersistentItem)}
+ * and written in chunks of up to batchSize items, each chunk in a single transaction. If a chunk cannot be written
+ * (e.g. because of a duplicate timestamp), its items are written one by one, so that a single failing item does not
+ * discard the others.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JpaItemWriter {
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final long POLL_TIMEOUT_SECONDS = 1;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Logger logger = LoggerFactory.getLogger(JpaItemWriter.class);
+
+    private final Supplier<EntityManagerFactory> entityManagerFactory;
+    private final int batchSize;
+    private final BlockingQueue<JpaPersistentItem> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private final AtomicBoolean queueFullLogged = new AtomicBoolean();
+
+    /**
+     * @param entityManagerFactory supplies the factory, it is only called from the writer thread
+     * @param batchSize the maximum number of items persisted in one transaction
+     */
+    public JpaItemWriter(Supplier<EntityManagerFactory> entityManagerFactory, int batchSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = Math.max(1, batchSize);
+        this.thread = new NamedThreadFactory("persistence-jpa-writer", true).newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * Queues an item for writing. Returns immediately.
+     *
+     * @param item the item to persist
+     * @return false if the item was discarded because the writer is closed or the queue is full
+     */
+    public boolean add(JpaPersistentItem item) {
+        if (!running) {
+            logger.debug("Discarding item {}, the writer is closed", item.getName());
+            return false;
+        }
+        if (!queue.offer(item)) {
+            if (queueFullLogged.compareAndSet(false, true)) {
+                logger.warn("The JPA write queue is full, items are discarded until the database catches up");
+            }
+            return false;
+        }
+        queueFullLogged.set(false);
+        return true;
+    }
+
+    /**
+     * Writes all queued items and stops the writer thread.
+     */
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Discarding {} items that could not be written to the database", queue.size());
+            queue.clear();
+        }
+    }
+
+    private void run() {
+        List<JpaPersistentItem> chunk = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                JpaPersistentItem item = queue.poll(POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (item == null) {
+                    continue;
+                }
+                chunk.add(item);
+                queue.drainTo(chunk, batchSize - 1);
+                persist(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error while persisting {} items", chunk.size(), e);
+            } finally {
+                chunk.clear();
+            }
+        }
+    }
+
+    private void persist(List<JpaPersistentItem> items) {
+        logger.debug("Persisting {} items...", items.size());
+        if (persistInTransaction(items, items.size() == 1)) {
+            logger.debug("Persisting {} items...done", items.size());
+        } else if (items.size() > 1) {
+            logger.debug("Persisting {} items failed, persisting them one by one", items.size());
+            // the failed instances may have been assigned an id, use fresh copies
+            items.forEach(item -> persistInTransaction(List.of(copy(item)), true));
+        }
+    }
+
+    private boolean persistInTransaction(List<JpaPersistentItem> items, boolean logError) {
+        EntityManager em = entityManagerFactory.get().createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
+            transaction.begin();
+            items.forEach(em::persist);
+            transaction.commit();
+            return true;
+        } catch (Exception e) {
+            if (logError) {
+                if (e.getCause() instanceof EntityExistsException) {
+                    // there's a UNIQUE constraint in the database, and we tried to write
+                    // a duplicate timestamp. Just ignore
+                    logger.debug("Failed to persist item {} because of duplicate timestamp", items.get(0).getName());
+                } else {
+                    logger.error("Error while persisting item! Rolling back!", e);
+                }
+            }
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static JpaPersistentItem copy(JpaPersistentItem item) {
+        JpaPersistentItem copy = new JpaPersistentItem();
+        copy.setName(item.getName());
+        copy.setRealName(item.getRealName());
+        copy.setTimestamp(Date.from(item.getTimestamp().toInstant()));
+        copy.setValue(item.getValue());
+        return copy;
+    }
+}
@@ -43,7 +43,6 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
@@ -73,6 +72,8 @@ public class JpaPersistenceService implements QueryablePersistenceService {
 
     private @NonNullByDefault({}) JpaConfiguration config;
 
+    private volatile @Nullable JpaItemWriter writer;
+
     private boolean initialized;
 
     @Activate
@@ -82,6 +83,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         logger.debug("Activating JPA persistence service");
         try {
             config = new JpaConfiguration(properties);
+            writer = new JpaItemWriter(this::getEntityManagerFactory, config.batchSize);
             initialized = true;
         } catch (IllegalArgumentException e) {
             logger.warn("{}", e.getMessage());
@@ -93,7 +95,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
      *
      * @return EntityManagerFactory
      */
-    protected EntityManagerFactory getEntityManagerFactory() {
+    protected synchronized EntityManagerFactory getEntityManagerFactory() {
         EntityManagerFactory emf = this.emf;
         if (emf == null) {
             emf = newEntityManagerFactory();
@@ -108,6 +110,11 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating JPA persistence service");
+        JpaItemWriter writer = this.writer;
+        if (writer != null) {
+            writer.close();
+            this.writer = null;
+        }
         closeEntityManagerFactory();
     }
 
@@ -156,28 +163,15 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         pItem.setRealName(item.getName());
         pItem.setTimestamp(new Date());
 
-        EntityManager em = getEntityManagerFactory().createEntityManager();
-        try {
-            logger.debug("Persisting item...");
-            // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
-            em.getTransaction().begin();
-            em.persist(pItem);
-            em.getTransaction().commit();
-            logger.debug("Persisting item...done");
-        } catch (Exception e) {
-            if (e.getCause() instanceof EntityExistsException) {
-                // there's a UNIQUE constraint in the database, and we tried to write
-                // a duplicate timestamp. Just ignore
-                logger.debug("Failed to persist item {} because of duplicate timestamp", name);
-            } else {
-                logger.error("Error while persisting item! Rolling back!", e);
-            }
-            em.getTransaction().rollback();
-        } finally {
-            em.close();
+        JpaItemWriter writer = this.writer;
+        if (writer == null) {
+            logger.debug("Discarding item {}, the JPA persistence service is not active", name);
+            return;
+        }
+        // persisted asynchronously in batches
+        if (writer.add(pItem)) {
+            logger.debug("Storing item...queued");
         }
-
-        logger.debug("Storing item...done");
     }
 
     @Override
@@ -293,6 +287,9 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             properties.put("openjpa.jdbc.SynchronizeMappings", config.dbSyncMapping);
         }
 
+        // let OpenJPA send the inserts of a transaction as JDBC batches
+        properties.put("openjpa.jdbc.DBDictionary", "batchLimit=" + config.batchSize);
+
         EntityManagerFactory factory = Persistence.createEntityManagerFactory(getPersistenceUnitName(), properties);
         logger.debug("Creating EntityManagerFactory...done");
 
@@ -302,7 +299,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     /**
      * Closes EntityManagerFactory
      */
-    protected void closeEntityManagerFactory() {
+    protected synchronized void closeEntityManagerFactory() {
         if (emf != null) {
             emf.close();
             emf = null;
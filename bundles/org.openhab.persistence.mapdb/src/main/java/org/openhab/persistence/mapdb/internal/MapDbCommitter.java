@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MapDbCommitter} keeps the latest stored state per alias in memory and passes them to a {@link Store} in
+ * one commit. A commit happens after the commit interval or as soon as the number of pending aliases reaches the
+ * commit threshold. With a commit interval of 0, every state is committed immediately by the storing thread.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitter {
+
+    /**
+     * The database the pending states are committed to.
+     */
+    public interface Store {
+        boolean isOpen();
+
+        void put(String alias, MapDbItem item);
+
+        void commit();
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitter.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Store store;
+    private final Map<String, MapDbItem> pendingItems = new ConcurrentHashMap<>();
+    private final AtomicBoolean commitRequested = new AtomicBoolean();
+    // serializes commits and closing, so that no commit runs after close() has returned
+    private final Object commitLock = new Object();
+    private @Nullable ScheduledFuture<?> commitJob;
+    private volatile long commitInterval;
+    private volatile int commitThreshold;
+    private volatile boolean closed;
+
+    public MapDbCommitter(ScheduledExecutorService scheduler, Store store) {
+        this.scheduler = scheduler;
+        this.store = store;
+    }
+
+    /**
+     * (Re)configures the committer and schedules the periodic commit.
+     *
+     * @param commitInterval the maximum time (in milliseconds) a state is kept before it is committed, 0 to commit
+     *            every state immediately
+     * @param commitThreshold the number of pending aliases that triggers a commit
+     */
+    public synchronized void configure(long commitInterval, int commitThreshold) {
+        this.commitInterval = Math.max(0, commitInterval);
+        this.commitThreshold = Math.max(1, commitThreshold);
+
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
+        }
+        this.commitJob = this.commitInterval > 0 && !closed
+                ? scheduler.scheduleWithFixedDelay(this::commit, this.commitInterval, this.commitInterval,
+                        TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    /**
+     * Adds a state. A pending state of the same alias is replaced.
+     *
+     * @param alias the alias
+     * @param item the item holding the state
+     */
+    public void add(String alias, MapDbItem item) {
+        pendingItems.put(alias, item);
+        if (commitInterval == 0) {
+            commit();
+        } else if (pendingItems.size() >= commitThreshold && commitRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::commit);
+        }
+    }
+
+    public @Nullable MapDbItem getPending(String alias) {
+        return pendingItems.get(alias);
+    }
+
+    public boolean isPending(String alias) {
+        return pendingItems.containsKey(alias);
+    }
+
+    public Collection<MapDbItem> getPendingItems() {
+        return pendingItems.values();
+    }
+
+    /**
+     * Commits all pending states, unless the committer has been closed.
+     */
+    public void commit() {
+        commitRequested.set(false);
+        synchronized (commitLock) {
+            if (closed || pendingItems.isEmpty() || !store.isOpen()) {
+                return;
+            }
+            int count = 0;
+            try {
+                for (Map.Entry<String, MapDbItem> entry : pendingItems.entrySet()) {
+                    String alias = entry.getKey();
+                    MapDbItem mItem = entry.getValue();
+                    store.put(alias, mItem);
+                    // keep the state if it has been replaced in the meantime, it is stored with the next commit
+                    pendingItems.remove(alias, mItem);
+                    count++;
+                    logger.debug("Stored '{}' with state '{}' in MapDB database", alias, mItem.getState());
+                }
+                store.commit();
+                logger.debug("Committed {} states to MapDB database", count);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to commit {} states to MapDB database: {}", count, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic commit and commits all pending states. Waits for a running commit to finish, afterwards
+     * the store is not accessed anymore.
+     */
+    public void close() {
+        synchronized (this) {
+            ScheduledFuture<?> commitJob = this.commitJob;
+            if (commitJob != null) {
+                commitJob.cancel(false);
+                this.commitJob = null;
+            }
+        }
+        commit();
+        synchronized (commitLock) {
+            closed = true;
+        }
+        if (!pendingItems.isEmpty()) {
+            logger.warn("{} states have been stored while closing the MapDB database and are discarded",
+                    pendingItems.size());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Date;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.PersistenceItemInfo;
+
+/**
+ * The {@link MapDbItemInfo} holds the name and timestamp of a stored item, without its state.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public record MapDbItemInfo(String name, Date timestamp) implements PersistenceItemInfo {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public @Nullable Integer getCount() {
+        return Integer.valueOf(1);
+    }
+
+    @Override
+    public @Nullable Date getEarliest() {
+        return timestamp;
+    }
+
+    @Override
+    public @Nullable Date getLatest() {
+        return timestamp;
+    }
+}
@@ -24,7 +24,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,8 +32,10 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.persistence.FilterCriteria;
@@ -48,11 +50,13 @@ import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 /**
  * This is the implementation of the MapDB {@link PersistenceService}. To learn more about MapDB please visit their
@@ -62,8 +66,9 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class }, property = Constants.SERVICE_PID
-        + "=org.openhab.mapdb")
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", property = Constants.SERVICE_PID
+                + "=org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_ID = "mapdb";
@@ -71,25 +76,57 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
     private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    // states stored as JSON by previous versions, migrated to the binary store on activation
+    private static final String JSON_STORE_NAME = "itemStore";
+    // the JSON states are kept under this name after the migration
+    private static final String JSON_BACKUP_STORE_NAME = "itemStore.backup";
+    private static final String BINARY_STORE_NAME = "itemStates";
+
+    private static final String COMMIT_INTERVAL_CONFIG = "commitInterval";
+    private static final String COMMIT_THRESHOLD_CONFIG = "commitThreshold";
+    private static final long COMMIT_INTERVAL_DEFAULT = 1000;
+    private static final int COMMIT_THRESHOLD_DEFAULT = 100;
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
-    private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
+
+    /**
+     * holds the latest state per alias until it is committed
+     */
+    private final MapDbCommitter committer = new MapDbCommitter(scheduler, new MapDbCommitter.Store() {
+        @Override
+        public boolean isOpen() {
+            return db != null && map != null;
+        }
+
+        @Override
+        public void put(String alias, MapDbItem item) {
+            map.put(alias, StateCodec.encode(item));
+        }
+
+        @Override
+        public void commit() {
+            db.commit();
+        }
+    });
 
     /**
      * holds the local instance of the MapDB database
      */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
 
     private transient Gson mapper = new GsonBuilder().setDateFormat(DateTimeType.DATE_PATTERN_JSON_COMPAT)
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
 
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
+        modified(config);
+
         try {
             Files.createDirectories(DB_DIR);
         } catch (IOException e) {
@@ -101,7 +138,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
             db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            openStore();
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException cnf) {
@@ -133,7 +170,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                 }
 
                 db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                openStore();
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
@@ -142,9 +179,66 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         logger.debug("MapDB persistence service is now activated");
     }
 
+    private void openStore() {
+        map = db.createTreeMap(BINARY_STORE_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        if (!db.exists(JSON_STORE_NAME)) {
+            return;
+        }
+
+        // the binary store must survive a rollback of the migration
+        db.commit();
+        Map<String, String> jsonMap = db.getTreeMap(JSON_STORE_NAME);
+        int count = 0;
+        int skipped = 0;
+        try {
+            for (Map.Entry<String, String> entry : jsonMap.entrySet()) {
+                Optional<MapDbItem> item = deserializeJson(entry.getKey(), entry.getValue());
+                if (item.isPresent()) {
+                    map.put(entry.getKey(), StateCodec.encode(item.get()));
+                    count++;
+                } else {
+                    skipped++;
+                }
+            }
+            // the JSON states are kept, renaming them in the same commit prevents migrating them again
+            if (db.exists(JSON_BACKUP_STORE_NAME)) {
+                db.delete(JSON_BACKUP_STORE_NAME);
+            }
+            db.rename(JSON_STORE_NAME, JSON_BACKUP_STORE_NAME);
+            db.commit();
+        } catch (RuntimeException e) {
+            db.rollback();
+            logger.warn(
+                    "Failed to migrate item states in MapDB database to binary format, the migration is retried on the next start: {}",
+                    e.getMessage());
+            return;
+        }
+        if (skipped > 0) {
+            logger.warn(
+                    "Migrated {} item states in MapDB database to binary format, skipped {} invalid states. The previous states are kept as '{}'.",
+                    count, skipped, JSON_BACKUP_STORE_NAME);
+        } else {
+            logger.info(
+                    "Migrated {} item states in MapDB database to binary format, the previous states are kept as '{}'",
+                    count, JSON_BACKUP_STORE_NAME);
+        }
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        long commitInterval = ConfigParser.valueAsOrElse(config.get(COMMIT_INTERVAL_CONFIG), Long.class,
+                COMMIT_INTERVAL_DEFAULT);
+        int commitThreshold = ConfigParser.valueAsOrElse(config.get(COMMIT_THRESHOLD_CONFIG), Integer.class,
+                COMMIT_THRESHOLD_DEFAULT);
+        committer.configure(commitInterval, commitThreshold);
+        logger.debug("Committing MapDB changes every {} ms or after {} changes", commitInterval, commitThreshold);
+    }
+
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        // make sure all pending states are stored and no commit runs after the database is closed
+        committer.close();
         if (db != null) {
             db.close();
         }
@@ -162,8 +256,14 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        // only the timestamps are read, the states are not decoded
+        Stream<PersistenceItemInfo> storedItems = map.entrySet().stream()
+                .filter(entry -> !committer.isPending(entry.getKey()))
+                .map(entry -> readItemInfo(entry.getKey(), entry.getValue()))
+                .flatMap(MapDbPersistenceService::streamOptional);
+        Stream<PersistenceItemInfo> pending = committer.getPendingItems().stream()
+                .map(item -> new MapDbItemInfo(item.getName(), Date.from(item.getTimestamp().toInstant())));
+        return Stream.concat(storedItems, pending).collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
     }
 
     @Override
@@ -186,33 +286,63 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        threadPool.submit(() -> {
-            String json = serialize(mItem);
-            map.put(localAlias, json);
-            db.commit();
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
-        });
+        // only the latest state of an alias is kept until the next commit
+        committer.add(localAlias, mItem);
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String itemName = filter.getItemName();
+        if (itemName == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        MapDbItem pendingItem = committer.getPending(itemName);
+        if (pendingItem != null) {
+            return List.of(pendingItem);
+        }
+        byte[] value = map.get(itemName);
+        if (value == null) {
+            return List.of();
+        }
+        Optional<MapDbItem> item = deserialize(itemName, value);
         return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private Optional<MapDbItem> deserialize(String alias, byte[] value) {
+        try {
+            MapDbItem item = StateCodec.decode(alias, value);
+            if (item == null) {
+                logger.warn("Deserialized invalid state for '{}'", alias);
+                return Optional.empty();
+            }
+            logger.debug("Deserialized '{}' with state '{}'", alias, item.getState());
+            return Optional.of(item);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to deserialize state of '{}': {}", alias, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<PersistenceItemInfo> readItemInfo(String alias, byte[] value) {
+        try {
+            return Optional.of(new MapDbItemInfo(alias, StateCodec.readTimestamp(value)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to read timestamp of '{}': {}", alias, e.getMessage());
+            return Optional.empty();
+        }
     }
 
     @SuppressWarnings("null")
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.fromJson(json, MapDbItem.class);
+    private Optional<MapDbItem> deserializeJson(String alias, String json) {
+        MapDbItem item;
+        try {
+            item = mapper.fromJson(json, MapDbItem.class);
+        } catch (JsonParseException e) {
+            logger.warn("Skipping state of '{}' that can not be parsed: {}", alias, e.getMessage());
+            return Optional.empty();
+        }
         if (item == null || !item.isValid()) {
-            logger.warn("Deserialized invalid item: {}", item);
+            logger.warn("Skipping invalid state of '{}': {}", alias, json);
             return Optional.empty();
         } else if (logger.isDebugEnabled()) {
             logger.debug("Deserialized '{}' with state '{}' from '{}'", item.getName(), item.getState(), json);
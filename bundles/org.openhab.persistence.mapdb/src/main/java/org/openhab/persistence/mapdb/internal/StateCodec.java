@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+
+/**
+ * The {@link StateCodec} converts a {@link MapDbItem} to a compact binary representation and back.
+ *
+ * The binary format starts with a version byte and the timestamp (milliseconds since epoch), so that the timestamp
+ * can be read without decoding the state. It is followed by a type tag and the state in a type specific format.
+ * States of types without a special format are stored by their class name and string representation.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class StateCodec {
+
+    private static final byte VERSION = 1;
+    private static final int TIMESTAMP_OFFSET = 1;
+    private static final int HEADER_LENGTH = TIMESTAMP_OFFSET + Long.BYTES;
+
+    private static final byte TYPE_OTHER = 0;
+    private static final byte TYPE_ON = 1;
+    private static final byte TYPE_OFF = 2;
+    private static final byte TYPE_OPEN = 3;
+    private static final byte TYPE_CLOSED = 4;
+    private static final byte TYPE_DECIMAL = 5;
+    private static final byte TYPE_PERCENT = 6;
+    private static final byte TYPE_HSB = 7;
+    private static final byte TYPE_QUANTITY = 8;
+    private static final byte TYPE_STRING = 9;
+    private static final byte TYPE_DATETIME = 10;
+
+    private StateCodec() {
+        // prevent instantiation
+    }
+
+    /**
+     * Encodes state and timestamp of an item.
+     *
+     * @param item the item to encode
+     * @return the binary representation
+     */
+    public static byte[] encode(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an item.
+     *
+     * @param name the name of the item
+     * @param value the binary representation
+     * @return the item or null if the value could not be decoded
+     * @throws IllegalArgumentException if the value has an unknown format
+     */
+    public static @Nullable MapDbItem decode(String name, byte[] value) {
+        checkHeader(value);
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(value, HEADER_LENGTH, value.length - HEADER_LENGTH))) {
+            State state = readState(in);
+            if (state == null) {
+                return null;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(readTimestamp(value));
+            return item;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid state of item '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads only the timestamp of an encoded item.
+     *
+     * @param value the binary representation
+     * @return the timestamp
+     * @throws IllegalArgumentException if the value has an unknown format
+     */
+    public static Date readTimestamp(byte[] value) {
+        checkHeader(value);
+        return new Date(ByteBuffer.wrap(value, TIMESTAMP_OFFSET, Long.BYTES).getLong());
+    }
+
+    private static void checkHeader(byte[] value) {
+        if (value.length < HEADER_LENGTH + 1 || value[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported format");
+        }
+    }
+
+    private static void writeState(DataOutputStream out, State state) throws IOException {
+        Class<?> type = state.getClass();
+        if (state == OnOffType.ON) {
+            out.writeByte(TYPE_ON);
+        } else if (state == OnOffType.OFF) {
+            out.writeByte(TYPE_OFF);
+        } else if (state == OpenClosedType.OPEN) {
+            out.writeByte(TYPE_OPEN);
+        } else if (state == OpenClosedType.CLOSED) {
+            out.writeByte(TYPE_CLOSED);
+        } else if (type == DecimalType.class) {
+            out.writeByte(TYPE_DECIMAL);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (type == PercentType.class) {
+            out.writeByte(TYPE_PERCENT);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (type == HSBType.class) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TYPE_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (type == QuantityType.class) {
+            out.writeByte(TYPE_QUANTITY);
+            writeString(out, state.toFullString());
+        } else if (type == StringType.class) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, state.toFullString());
+        } else if (type == DateTimeType.class) {
+            ZonedDateTime dateTime = ((DateTimeType) state).getZonedDateTime();
+            Instant instant = dateTime.toInstant();
+            out.writeByte(TYPE_DATETIME);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+            writeString(out, dateTime.getZone().getId());
+        } else {
+            out.writeByte(TYPE_OTHER);
+            writeString(out, type.getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private static @Nullable State readState(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_ON:
+                return OnOffType.ON;
+            case TYPE_OFF:
+                return OnOffType.OFF;
+            case TYPE_OPEN:
+                return OpenClosedType.OPEN;
+            case TYPE_CLOSED:
+                return OpenClosedType.CLOSED;
+            case TYPE_DECIMAL:
+                return new DecimalType(readDecimal(in));
+            case TYPE_PERCENT:
+                return new PercentType(readDecimal(in));
+            case TYPE_HSB:
+                return new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                        new PercentType(readDecimal(in)));
+            case TYPE_QUANTITY:
+                return new QuantityType<>(readString(in));
+            case TYPE_STRING:
+                return new StringType(readString(in));
+            case TYPE_DATETIME:
+                Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                return new DateTimeType(ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in))));
+            case TYPE_OTHER:
+                return readOtherState(readString(in), readString(in));
+            default:
+                throw new IOException("unknown type " + type);
+        }
+    }
+
+    private static @Nullable State readOtherState(String typeName, String value) throws IOException {
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> valueType = (Class<? extends State>) Class.forName(typeName);
+            return TypeParser.parseState(List.of(valueType), value);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("unknown state type " + typeName, e);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[readLength(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        // the stream reads from a byte array, so all remaining bytes are available
+        if (length < 0 || length > in.available()) {
+            throw new IOException("invalid length " + length);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.mapdb.internal.MapDbCommitter;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+
+/**
+ * Tests the {@link MapDbCommitter}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final TestStore store = new TestStore();
+    private final MapDbCommitter committer = new MapDbCommitter(scheduler, store);
+
+    private static class TestStore implements MapDbCommitter.Store {
+        private final Map<String, MapDbItem> stored = new LinkedHashMap<>();
+        private int puts;
+        private int commits;
+        private boolean open = true;
+
+        @Override
+        public synchronized boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public synchronized void put(String alias, MapDbItem item) {
+            stored.put(alias, item);
+            puts++;
+        }
+
+        @Override
+        public synchronized void commit() {
+            commits++;
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static MapDbItem item(String name, int value) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(new DecimalType(value));
+        item.setTimestamp(new Date());
+        return item;
+    }
+
+    private void awaitScheduler() throws Exception {
+        scheduler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void zeroIntervalCommitsSynchronously() {
+        committer.configure(0, 100);
+
+        committer.add("a", item("a", 1));
+
+        assertThat(store.commits, is(1));
+        assertThat(store.stored.get("a").getState(), is(new DecimalType(1)));
+        assertThat(committer.isPending("a"), is(false));
+    }
+
+    @Test
+    public void statesOfTheSameAliasAreCoalesced() {
+        committer.configure(60000, 100);
+
+        committer.add("a", item("a", 1));
+        committer.add("a", item("a", 2));
+        committer.add("b", item("b", 3));
+
+        assertThat(store.commits, is(0));
+        assertThat(committer.getPending("a").getState(), is(new DecimalType(2)));
+        assertThat(committer.getPendingItems().size(), is(2));
+
+        committer.commit();
+
+        assertThat(store.puts, is(2));
+        assertThat(store.commits, is(1));
+        assertThat(store.stored.get("a").getState(), is(new DecimalType(2)));
+        assertThat(committer.getPendingItems().isEmpty(), is(true));
+    }
+
+    @Test
+    public void thresholdTriggersCommit() throws Exception {
+        committer.configure(60000, 3);
+
+        committer.add("a", item("a", 1));
+        committer.add("b", item("b", 2));
+        committer.add("b", item("b", 3));
+        awaitScheduler();
+
+        assertThat(store.commits, is(0));
+
+        committer.add("c", item("c", 4));
+        awaitScheduler();
+
+        assertThat(store.commits, is(1));
+        assertThat(store.stored.keySet(), hasItems("a", "b", "c"));
+        assertThat(committer.getPendingItems().isEmpty(), is(true));
+    }
+
+    @Test
+    public void intervalTriggersCommit() throws Exception {
+        committer.configure(10, 100);
+
+        committer.add("a", item("a", 1));
+        Thread.sleep(100);
+        awaitScheduler();
+
+        assertThat(store.commits, is(greaterThanOrEqualTo(1)));
+        assertThat(store.stored.containsKey("a"), is(true));
+    }
+
+    @Test
+    public void closeCommitsPendingStatesAndStopsCommitting() {
+        committer.configure(60000, 100);
+        committer.add("a", item("a", 1));
+
+        committer.close();
+
+        assertThat(store.commits, is(1));
+        assertThat(store.stored.containsKey("a"), is(true));
+
+        committer.add("b", item("b", 2));
+        committer.commit();
+
+        assertThat(store.commits, is(1));
+        assertThat(store.stored.containsKey("b"), is(false));
+    }
+
+    @Test
+    public void nothingIsCommittedToAClosedStore() {
+        committer.configure(0, 100);
+        store.open = false;
+
+        committer.add("a", item("a", 1));
+
+        assertThat(store.commits, is(0));
+        assertThat(committer.isPending("a"), is(true));
+    }
+}
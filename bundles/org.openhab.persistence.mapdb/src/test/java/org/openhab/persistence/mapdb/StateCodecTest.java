@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.library.unit.Units;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.StateCodec;
+
+/**
+ * Tests the {@link StateCodec}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class StateCodecTest {
+
+    private static final List<State> VALUES = List.of(OnOffType.ON, OnOffType.OFF, OpenClosedType.OPEN,
+            OpenClosedType.CLOSED, DecimalType.ZERO, new DecimalType(1.123), new DecimalType(new BigDecimal("-1E+20")),
+            PercentType.HUNDRED, PercentType.valueOf("99.999"), HSBType.fromRGB(11, 22, 33),
+            QuantityType.valueOf(20, Units.AMPERE), new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS),
+            StringType.valueOf(""), StringType.valueOf("äöü @@@ 1 2 3"),
+            new DateTimeType("2024-01-02T03:04:05.123456789+01:00"), UpDownType.UP, PointType.valueOf("1.5,2.25"));
+
+    @ParameterizedTest
+    @MethodSource
+    public void encodeDecodeRoundtripShouldRecreateTheItem(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1700000000123L));
+
+        byte[] value = StateCodec.encode(item);
+        MapDbItem actual = Objects.requireNonNull(StateCodec.decode("alias", value));
+
+        assertThat(actual.getName(), is("alias"));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getState().getClass(), is(equalTo(state.getClass())));
+        assertThat(actual.getTimestamp(), is(equalTo(item.getTimestamp())));
+    }
+
+    public static Stream<State> encodeDecodeRoundtripShouldRecreateTheItem() {
+        return VALUES.stream();
+    }
+
+    @Test
+    public void readTimestampShouldNotRequireTheState() {
+        MapDbItem item = new MapDbItem();
+        item.setState(new DecimalType(42));
+        item.setTimestamp(new Date(1700000000123L));
+
+        assertThat(StateCodec.readTimestamp(StateCodec.encode(item)), is(equalTo(new Date(1700000000123L))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 4, Integer.MAX_VALUE })
+    public void invalidLengthsShouldBeRejected(int length) {
+        MapDbItem stringItem = new MapDbItem();
+        stringItem.setState(StringType.valueOf("abc"));
+        byte[] string = StateCodec.encode(stringItem);
+        // version, timestamp and type precede the length
+        ByteBuffer.wrap(string).putInt(10, length);
+
+        MapDbItem decimalItem = new MapDbItem();
+        decimalItem.setState(new DecimalType(42));
+        byte[] decimal = StateCodec.encode(decimalItem);
+        // the scale precedes the length of the unscaled value
+        ByteBuffer.wrap(decimal).putInt(14, length);
+
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode("item", string));
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode("item", decimal));
+    }
+}
@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.mongodb.internal;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -21,16 +23,24 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.bson.BsonMaximumSizeExceededException;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.RawType;
+import org.openhab.core.library.types.StringType;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
@@ -51,10 +61,16 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.mongodb.MongoCommandException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.TimeSeriesGranularity;
+import com.mongodb.client.model.TimeSeriesOptions;
 import com.mongodb.client.result.DeleteResult;
 
 /**
@@ -70,18 +86,34 @@ import com.mongodb.client.result.DeleteResult;
                 + "=org.openhab.mongodb")
 public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_FLUSH_INTERVAL = 1000;
+    private static final int BUFFER_CAPACITY = 10000;
+    private static final int MAX_DOCUMENT_SIZE = 16 * 1024 * 1024;
+    // the server returns this error code if a collection to create exists already
+    private static final int NAMESPACE_EXISTS = 48;
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
     private String url = "";
     private String db = "";
     private String collection = "";
     private boolean collectionPerItem;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private boolean timeSeries;
 
     private boolean initialized = false;
 
     protected final ItemRegistry itemRegistry;
 
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("org.openhab.mongodb");
+    // collections whose index (and time series layout) has been created since connecting
+    private final Set<String> preparedCollections = ConcurrentHashMap.newKeySet();
+
     private @Nullable MongoClient cl;
+    private @Nullable MongoDBWriteBuffer writeBuffer;
+    private @Nullable ScheduledFuture<?> flushJob;
 
     @Activate
     public MongoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
@@ -114,16 +146,57 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         collection = dbCollection == null ? "" : dbCollection;
         collectionPerItem = dbCollection == null || dbCollection.isBlank();
 
+        try {
+            batchSize = getIntConfig(config, "batchSize", DEFAULT_BATCH_SIZE);
+            flushInterval = getIntConfig(config, "flushInterval", DEFAULT_FLUSH_INTERVAL);
+        } catch (NumberFormatException | ArithmeticException e) {
+            logger.warn("Invalid batchSize or flushInterval, using the defaults: {}", e.getMessage());
+            batchSize = DEFAULT_BATCH_SIZE;
+            flushInterval = DEFAULT_FLUSH_INTERVAL;
+        }
+        timeSeries = Boolean.parseBoolean(String.valueOf(config.get("timeSeries")));
+        logger.debug("MongoDB batchSize {}, flushInterval {} ms, timeSeries {}", batchSize, flushInterval, timeSeries);
+
         if (!tryConnectToDatabase()) {
             logger.warn("Failed to connect to MongoDB server. Trying to reconnect later.");
         }
 
+        MongoDBWriteBuffer writeBuffer = new MongoDBWriteBuffer(this::getCollectionForWrite, batchSize,
+                Math.max(BUFFER_CAPACITY, batchSize));
+        this.writeBuffer = writeBuffer;
+        if (batchSize > 1 && flushInterval > 0) {
+            flushJob = scheduler.scheduleWithFixedDelay(writeBuffer::flush, flushInterval, flushInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+
         initialized = true;
     }
 
+    private static int getIntConfig(Map<String, Object> config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        return new BigDecimal(value.toString().trim()).intValueExact();
+    }
+
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        MongoDBWriteBuffer writeBuffer = this.writeBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.flush();
+            if (writeBuffer.size() > 0) {
+                logger.warn("Discarding {} documents that could not be written to the database", writeBuffer.size());
+            }
+            this.writeBuffer = null;
+        }
+        initialized = false;
         disconnectFromDatabase();
     }
 
@@ -207,7 +280,8 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
     }
 
     /**
-     * Connects to the Collection
+     * Connects to the Collection. The index (and the time series layout, if configured) is created on the first
+     * connection to a collection only.
      *
      * @return The collection object when collection creation was successful. Null otherwise.
      */
@@ -221,19 +295,73 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
                 return null;
             }
 
-            MongoCollection<Document> mongoCollection = db.getDatabase(this.db).getCollection(collectionName);
+            MongoDatabase database = db.getDatabase(this.db);
+            if (!preparedCollections.contains(collectionName)) {
+                if (timeSeries) {
+                    createTimeSeriesCollection(database, collectionName);
+                }
 
-            Document idx = new Document();
-            idx.append(MongoDBFields.FIELD_ITEM, 1).append(MongoDBFields.FIELD_TIMESTAMP, 1);
-            mongoCollection.createIndex(idx);
+                Document idx = new Document();
+                idx.append(MongoDBFields.FIELD_ITEM, 1).append(MongoDBFields.FIELD_TIMESTAMP, 1);
+                database.getCollection(collectionName).createIndex(idx);
+                preparedCollections.add(collectionName);
+            }
 
-            return mongoCollection;
+            return database.getCollection(collectionName);
         } catch (Exception e) {
             logger.error("Failed to connect to collection {}: {}", collectionName, e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Creates a time series collection with the timestamp as time field and the item name as meta field, unless the
+     * collection exists already. Existing collections are never converted.
+     */
+    private void createTimeSeriesCollection(MongoDatabase database, String collectionName) {
+        if (database.listCollections().filter(Filters.eq("name", collectionName)).first() != null) {
+            return;
+        }
+        try {
+            TimeSeriesOptions options = new TimeSeriesOptions(MongoDBFields.FIELD_TIMESTAMP)
+                    .metaField(MongoDBFields.FIELD_ITEM).granularity(TimeSeriesGranularity.SECONDS);
+            database.createCollection(collectionName, new CreateCollectionOptions().timeSeriesOptions(options));
+            logger.debug("Created time series collection {}", collectionName);
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != NAMESPACE_EXISTS) {
+                // e.g. MongoDB before 5.0, the collection is created as a regular one on the first insert
+                logger.warn("Failed to create time series collection {}, using a regular collection: {}",
+                        collectionName, e.getErrorMessage());
+            }
+        }
+    }
+
+    /**
+     * Connects to the collection for writing buffered documents, (re)connecting to the database if needed.
+     *
+     * @return The collection object or null if the database is not reachable
+     */
+    private @Nullable MongoCollection<Document> getCollectionForWrite(String collectionName) {
+        // Connect to mongodb server if we're not already connected
+        // If we can't connect, log.
+        if (!tryConnectToDatabase()) {
+            logger.warn("mongodb: No connection to database. Cannot persist to collection '{}'! Will retry later.",
+                    collectionName);
+            return null;
+        }
+        return connectToCollection(collectionName);
+    }
+
+    /**
+     * Writes the buffered documents, so that queries see all stored states.
+     */
+    private void flushWriteBuffer() {
+        MongoDBWriteBuffer writeBuffer = this.writeBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.flush();
+        }
+    }
+
     /**
      * Disconnects from the database
      */
@@ -244,10 +372,13 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         }
 
         cl = null;
+        // the database may have been dropped meanwhile, prepare the collections again
+        preparedCollections.clear();
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        flushWriteBuffer();
         MongoCollection<Document> collection = prepareCollection(filter);
         // If collection creation failed, return nothing.
         if (collection == null) {
@@ -341,31 +472,15 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         }
 
         // If we've not initialized the bundle, then return
-        if (!initialized) {
+        MongoDBWriteBuffer writeBuffer = this.writeBuffer;
+        if (!initialized || writeBuffer == null) {
             logger.warn("MongoDB not initialized");
             return;
         }
 
-        // Connect to mongodb server if we're not already connected
-        // If we can't connect, log.
-        if (!tryConnectToDatabase()) {
-            logger.warn(
-                    "mongodb: No connection to database. Cannot persist item '{}'! Will retry connecting to database next time.",
-                    item);
-            return;
-        }
-
         String realItemName = item.getName();
         String collectionName = collectionPerItem ? realItemName : this.collection;
 
-        @Nullable
-        MongoCollection<Document> collection = connectToCollection(collectionName);
-
-        if (collection == null) {
-            // Logging is done in connectToCollection()
-            return;
-        }
-
         String name = (alias != null) ? alias : realItemName;
         Object value = MongoDBTypeConversions.convertValue(state);
 
@@ -378,15 +493,27 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         if (item instanceof NumberItem && state instanceof QuantityType<?>) {
             obj.put(MongoDBFields.FIELD_UNIT, ((QuantityType<?>) state).getUnit().toString());
         }
-        try {
-            collection.insertOne(obj);
-        } catch (org.bson.BsonMaximumSizeExceededException e) {
+        // Reject a document which can never be written here, it would fail the whole batch otherwise
+        if (exceedsMaximumSize(state)) {
             logger.error("Document size exceeds maximum size of 16MB. Item {} not persisted.", name);
-            throw e;
+            throw new BsonMaximumSizeExceededException("Document size exceeds maximum size of 16MB");
         }
+        writeBuffer.add(collectionName, obj);
         logger.debug("MongoDB save {}={}", name, value);
     }
 
+    private static boolean exceedsMaximumSize(State state) {
+        if (state instanceof RawType rawType) {
+            return rawType.getBytes().length >= MAX_DOCUMENT_SIZE;
+        } else if (state instanceof StringType stringType) {
+            // a UTF-8 encoded char takes up to 3 bytes, only encode strings which might be too large
+            String string = stringType.toFullString();
+            return string.length() * 3L >= MAX_DOCUMENT_SIZE
+                    && string.getBytes(StandardCharsets.UTF_8).length >= MAX_DOCUMENT_SIZE;
+        }
+        return false;
+    }
+
     @Nullable
     public MongoCollection<Document> prepareCollection(FilterCriteria filter) {
         if (!initialized || !tryConnectToDatabase()) {
@@ -467,6 +594,7 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
     @Override
     public boolean remove(FilterCriteria filter) {
+        flushWriteBuffer();
         MongoCollection<Document> collection = prepareCollection(filter);
         // If collection creation failed, return nothing.
         if (collection == null) {
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mongodb.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.bson.BsonMaximumSizeExceededException;
+import org.bson.Document;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+
+/**
+ * The {@link MongoDBWriteBuffer} collects documents per collection and writes them with a single unordered
+ * {@code insertMany} per collection. The buffer is flushed when it holds batchSize documents or when {@link #flush()}
+ * is called (periodically and before queries).
+ *
+ * Documents that could not be written because the database is not reachable are kept for the next flush, as long as
+ * the buffer is not full.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MongoDBWriteBuffer {
+    private static final InsertManyOptions INSERT_OPTIONS = new InsertManyOptions().ordered(false);
+
+    private final Logger logger = LoggerFactory.getLogger(MongoDBWriteBuffer.class);
+
+    private final Function<String, @Nullable MongoCollection<Document>> collectionProvider;
+    private final int batchSize;
+    private final int capacity;
+
+    private final Object flushLock = new Object();
+    private Map<String, List<Document>> pending = new LinkedHashMap<>();
+    private int pendingCount;
+    private boolean bufferFullLogged;
+
+    /**
+     * @param collectionProvider returns the collection for a name or null if it is not available
+     * @param batchSize the number of documents which triggers a flush
+     * @param capacity the maximum number of documents kept in the buffer
+     */
+    public MongoDBWriteBuffer(Function<String, @Nullable MongoCollection<Document>> collectionProvider, int batchSize,
+            int capacity) {
+        this.collectionProvider = collectionProvider;
+        this.batchSize = Math.max(1, batchSize);
+        this.capacity = Math.max(this.batchSize, capacity);
+    }
+
+    /**
+     * Adds a document to the buffer. If the buffer holds batchSize documents afterwards, it is flushed by the calling
+     * thread.
+     *
+     * @param collectionName the name of the collection
+     * @param document the document
+     * @return false if the document was discarded because the buffer is full
+     */
+    public boolean add(String collectionName, Document document) {
+        boolean flush;
+        synchronized (this) {
+            if (pendingCount >= capacity) {
+                if (!bufferFullLogged) {
+                    logger.warn("The MongoDB write buffer is full, documents are discarded until the database is back");
+                    bufferFullLogged = true;
+                }
+                return false;
+            }
+            bufferFullLogged = false;
+            pending.computeIfAbsent(collectionName, name -> new ArrayList<>()).add(document);
+            pendingCount++;
+            flush = pendingCount >= batchSize;
+        }
+        if (flush) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * Writes all buffered documents.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, List<Document>> batch;
+            synchronized (this) {
+                if (pendingCount == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                pendingCount = 0;
+            }
+            batch.forEach(this::write);
+        }
+    }
+
+    /**
+     * @return the number of documents waiting to be written
+     */
+    public synchronized int size() {
+        return pendingCount;
+    }
+
+    private void write(String collectionName, List<Document> documents) {
+        MongoCollection<Document> collection = collectionProvider.apply(collectionName);
+        if (collection == null) {
+            // logging is done by the collection provider
+            requeue(collectionName, documents);
+            return;
+        }
+        try {
+            collection.insertMany(documents, INSERT_OPTIONS);
+            logger.debug("MongoDB wrote {} documents to collection {}", documents.size(), collectionName);
+        } catch (MongoBulkWriteException e) {
+            // the write is unordered, all documents without an error have been written
+            List<BulkWriteError> errors = e.getWriteErrors();
+            logger.warn("Failed to write {} of {} documents to collection {}: {}", errors.size(), documents.size(),
+                    collectionName, errors.isEmpty() ? e.getMessage() : errors.get(0).getMessage());
+        } catch (BsonMaximumSizeExceededException e) {
+            // a single document exceeds the size limit, the others are written one by one
+            documents.forEach(document -> writeOne(collection, collectionName, document));
+        } catch (MongoException e) {
+            logger.warn("Failed to write {} documents to collection {}: {}", documents.size(), collectionName,
+                    e.getMessage());
+            requeue(collectionName, documents);
+        }
+    }
+
+    private void writeOne(MongoCollection<Document> collection, String collectionName, Document document) {
+        try {
+            collection.insertOne(document);
+        } catch (BsonMaximumSizeExceededException e) {
+            logger.error("Document size exceeds maximum size of 16MB. Item {} not persisted.",
+                    document.get(MongoDBFields.FIELD_ITEM));
+        } catch (MongoException e) {
+            logger.warn("Failed to write document to collection {}: {}", collectionName, e.getMessage());
+        }
+    }
+
+    private synchronized void requeue(String collectionName, List<Document> documents) {
+        int free = capacity - pendingCount;
+        if (free < documents.size()) {
+            logger.warn("Discarding {} documents for collection {}, the MongoDB write buffer is full",
+                    documents.size() - free, collectionName);
+        }
+        if (free <= 0) {
+            return;
+        }
+        // the requeued documents are older than the ones added meanwhile
+        List<Document> requeued = new ArrayList<>(documents.subList(0, Math.min(free, documents.size())));
+        List<Document> newer = pending.get(collectionName);
+        if (newer != null) {
+            requeued.addAll(newer);
+        }
+        pending.put(collectionName, requeued);
+        pendingCount += Math.min(free, documents.size());
+    }
+}
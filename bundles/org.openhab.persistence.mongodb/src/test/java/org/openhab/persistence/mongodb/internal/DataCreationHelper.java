@@ -332,6 +332,8 @@ public class DataCreationHelper {
         if (collectionName != null) {
             config.put("collection", collectionName);
         }
+        // Write every document immediately, so that the tests can verify the database contents right after storing
+        config.put("batchSize", "1");
 
         // Create a MongoClient connected to the mock server
         MongoClient mongoClient = MongoClients.create(dbContainer.getConnectionString());
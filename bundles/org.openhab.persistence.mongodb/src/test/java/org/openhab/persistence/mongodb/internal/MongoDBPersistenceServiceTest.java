@@ -989,4 +989,73 @@ public class MongoDBPersistenceServiceTest {
             dbContainer.stop();
         }
     }
+
+    /**
+     * Tests that stored items are buffered until the batch size is reached and then written together.
+     */
+    @Test
+    public void testStoreBuffered() {
+        // Preparation
+        DatabaseTestContainer dbContainer = new DatabaseTestContainer(new MemoryBackend());
+        try {
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testCollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            MongoDatabase database = setupResult.database;
+            setupResult.config.put("batchSize", "3");
+            setupResult.config.put("flushInterval", "0");
+
+            service.activate(setupResult.bundleContext, setupResult.config);
+            MongoCollection<Document> collection = database.getCollection("testCollection");
+
+            // Execution
+            service.store(DataCreationHelper.createNumberItem("TestItem", 1), null);
+            service.store(DataCreationHelper.createNumberItem("TestItem2", 2), null);
+
+            // Verification
+            assertEquals(0, collection.countDocuments());
+
+            service.store(DataCreationHelper.createNumberItem("TestItem", 3), null);
+            assertEquals(3, collection.countDocuments());
+        } finally {
+            dbContainer.stop();
+        }
+    }
+
+    /**
+     * Tests that buffered items are written before a query and when the service is deactivated.
+     */
+    @Test
+    public void testBufferedItemsAreFlushed() {
+        // Preparation
+        DatabaseTestContainer dbContainer = new DatabaseTestContainer(new MemoryBackend());
+        try {
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testCollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            MongoDatabase database = setupResult.database;
+            setupResult.config.put("batchSize", "100");
+            setupResult.config.put("flushInterval", "0");
+
+            service.activate(setupResult.bundleContext, setupResult.config);
+            NumberItem item = DataCreationHelper.createNumberItem("TestItem", 10.1);
+            try {
+                Mockito.when(setupResult.itemRegistry.getItem("TestItem")).thenReturn(item);
+            } catch (ItemNotFoundException e) {
+            }
+            MongoCollection<Document> collection = database.getCollection("testCollection");
+
+            // Execution
+            service.store(item, null);
+            Iterable<HistoricItem> result = service.query(DataCreationHelper.createFilterCriteria("TestItem"));
+
+            // Verification
+            VerificationHelper.verifyQueryResult(result, item.getState());
+
+            service.store(DataCreationHelper.createNumberItem("TestItem", 20.2), null);
+            assertEquals(1, collection.countDocuments());
+            service.deactivate(1);
+            assertEquals(2, collection.countDocuments());
+        } finally {
+            dbContainer.stop();
+        }
+    }
 }
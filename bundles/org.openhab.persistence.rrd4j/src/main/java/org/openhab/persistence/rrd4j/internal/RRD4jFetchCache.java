@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+import org.rrd4j.ConsolFun;
+
+/**
+ * The {@link RRD4jFetchCache} keeps the raw results of recent fetch requests, so that repeated queries for the same
+ * item and time range (e.g. from charts that are refreshed periodically) do not need to read the archives again. The
+ * size of the cache is limited by the total number of cached values, the least recently used results are evicted
+ * first. All results of an item are invalidated when new samples are written to its database.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jFetchCache {
+
+    /**
+     * The key of a fetch result. Start and end are rounded to the step of the database, as the archive rows returned
+     * by rrd4j are aligned to (a multiple of) this step anyway.
+     *
+     * @param itemName the item name
+     * @param consolFun the consolidation function
+     * @param step the step of the database in seconds
+     * @param start the start of the requested range in steps
+     * @param end the end of the requested range in steps (rounded up)
+     */
+    public record FetchKey(String itemName, ConsolFun consolFun, long step, long start, long end) {
+
+        public static FetchKey of(String itemName, ConsolFun consolFun, long step, long start, long end) {
+            return new FetchKey(itemName, consolFun, step, Math.floorDiv(start, step), -Math.floorDiv(-end, step));
+        }
+    }
+
+    /**
+     * The raw result of a fetch request
+     *
+     * @param firstTimestamp the timestamp of the first row in seconds
+     * @param step the distance of the rows in seconds, 0 if there is only one row
+     * @param values the values of the rows
+     */
+    public record FetchResult(long firstTimestamp, long step, double[] values) {
+
+        /**
+         * Creates the historic items for the rows in the given range. The items are created lazily while iterating.
+         *
+         * @param itemName the item name
+         * @param start the start of the range in seconds
+         * @param end the end of the range in seconds, if equal to start all rows are returned
+         * @param toState the function to convert a value to a state
+         * @return the historic items
+         */
+        public Iterable<HistoricItem> toHistoricItems(String itemName, long start, long end,
+                DoubleFunction<State> toState) {
+            return () -> new HistoricItemIterator(this, itemName, start, end, toState);
+        }
+    }
+
+    private final int maxValues;
+    private final Map<FetchKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private int cachedValues = 0;
+
+    /**
+     * @param maxValues the maximum number of values kept in the cache
+     */
+    public RRD4jFetchCache(int maxValues) {
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * Returns the version of the item's data. The version must be determined before fetching the data that is
+     * added to the cache afterwards.
+     *
+     * @param itemName the item name
+     * @return the current version
+     */
+    public long getVersion(String itemName) {
+        return versions.getOrDefault(itemName, 0L);
+    }
+
+    public synchronized @Nullable FetchResult get(FetchKey key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version != getVersion(key.itemName())) {
+            remove(key, entry);
+            return null;
+        }
+        return entry.result;
+    }
+
+    /**
+     * Adds a result to the cache, unless the item's data has changed since the given version
+     *
+     * @param key the key
+     * @param result the fetch result
+     * @param version the version of the item's data before the result was fetched
+     */
+    public synchronized void put(FetchKey key, FetchResult result, long version) {
+        int size = result.values().length;
+        if (size > maxValues || version != getVersion(key.itemName())) {
+            return;
+        }
+        CacheEntry oldEntry = entries.put(key, new CacheEntry(result, version));
+        if (oldEntry != null) {
+            cachedValues -= oldEntry.result.values().length;
+        }
+        cachedValues += size;
+
+        Iterator<Map.Entry<FetchKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (cachedValues > maxValues && iterator.hasNext()) {
+            Map.Entry<FetchKey, CacheEntry> eldest = iterator.next();
+            cachedValues -= eldest.getValue().result.values().length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Invalidates all cached results of an item. Outdated results are removed on the next access or evicted.
+     *
+     * @param itemName the item name
+     */
+    public void invalidate(String itemName) {
+        versions.merge(itemName, 1L, Long::sum);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        cachedValues = 0;
+    }
+
+    private void remove(FetchKey key, CacheEntry entry) {
+        entries.remove(key);
+        cachedValues -= entry.result.values().length;
+    }
+
+    private record CacheEntry(FetchResult result, long version) {
+    }
+
+    private static class HistoricItemIterator implements Iterator<HistoricItem> {
+        private final FetchResult result;
+        private final String itemName;
+        private final long start;
+        private final long end;
+        private final DoubleFunction<State> toState;
+
+        private int index = -1;
+        private double prevValue = Double.NaN;
+        private @Nullable State prevState;
+
+        private HistoricItemIterator(FetchResult result, String itemName, long start, long end,
+                DoubleFunction<State> toState) {
+            this.result = result;
+            this.itemName = itemName;
+            this.start = start;
+            this.end = end;
+            this.toState = toState;
+            advance();
+        }
+
+        private void advance() {
+            double[] values = result.values();
+            do {
+                index++;
+            } while (index < values.length && !matches(index));
+        }
+
+        private boolean matches(int index) {
+            if (Double.isNaN(result.values()[index])) {
+                return false;
+            }
+            long ts = timestamp(index);
+            return (ts >= start && ts <= end) || start == end;
+        }
+
+        private long timestamp(int index) {
+            return result.firstTimestamp() + index * result.step();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < result.values().length;
+        }
+
+        @Override
+        public HistoricItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            double value = result.values()[index];
+            State state = prevState;
+            if (state == null || prevValue != value) {
+                prevState = state = toState.apply(value);
+                prevValue = value;
+            }
+            HistoricItem item = new RRD4jItem(itemName, state,
+                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(timestamp(index)), ZoneId.systemDefault()));
+            advance();
+            return item;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -45,6 +46,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -71,6 +73,9 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceCronStrategy;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
+import org.openhab.persistence.rrd4j.internal.RRD4jFetchCache.FetchKey;
+import org.openhab.persistence.rrd4j.internal.RRD4jFetchCache.FetchResult;
+import org.openhab.persistence.rrd4j.internal.RRD4jWriter.Point;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -79,14 +84,13 @@ import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.rrd4j.ConsolFun;
-import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.core.RrdDbPool;
 import org.rrd4j.core.RrdDef;
-import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -130,15 +134,36 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private final ConcurrentSkipListMap<Key, Double> storageMap = new ConcurrentSkipListMap<>(Key::compareTo);
 
-    private static final String DATASOURCE_STATE = "state";
+    static final String DATASOURCE_STATE = "state";
+
+    private static final String BACKEND_CONFIG = "backend";
+    private static final String WRITER_THREADS_CONFIG = "writerThreads";
+    private static final String OPEN_FILES_CONFIG = "openFiles";
+    private static final String QUERY_CACHE_SIZE_CONFIG = "queryCacheSize";
+    private static final Set<String> SERVICE_CONFIG = Set.of(BACKEND_CONFIG, WRITER_THREADS_CONFIG, OPEN_FILES_CONFIG,
+            QUERY_CACHE_SIZE_CONFIG);
+    // memory-mapped (NIO) or plain random access file (FILE) backend
+    private static final Set<String> SUPPORTED_BACKENDS = Set.of("NIO", "FILE");
+    private static final int WRITER_THREADS_DEFAULT = 2;
+    private static final int OPEN_FILES_DEFAULT = 100;
+    private static final int QUERY_CACHE_SIZE_DEFAULT = 500000;
+    // additional pool capacity for databases opened by queries and charts
+    private static final int POOL_RESERVE = 100;
 
     private static final Path DB_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "persistence", "rrd4j").toAbsolutePath();
 
     private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
 
+    private static volatile RrdBackendFactory backendFactory = RrdBackendFactory.getDefaultFactory();
+
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
     private final ItemRegistry itemRegistry;
     private boolean active = false;
+    // guards changes of the writer, must not be held while calling getDB() as the writer threads call it
+    private final Object writerLock = new Object();
+    private volatile @Nullable RRD4jWriter writer;
+    private String writerConfig = "";
+    private volatile @Nullable RRD4jFetchCache fetchCache;
 
     public static Path getDatabasePath(String name) {
         return DB_FOLDER.resolve(name + ".rrd");
@@ -148,6 +173,10 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return DATABASE_POOL;
     }
 
+    public static RrdBackendFactory getBackendFactory() {
+        return backendFactory;
+    }
+
     private final ScheduledFuture<?> storeJob;
 
     @Activate
@@ -160,6 +189,12 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     @Modified
     protected void modified(final Map<String, Object> config) {
+        configureWriter(config);
+
+        int queryCacheSize = ConfigParser.valueAsOrElse(config.get(QUERY_CACHE_SIZE_CONFIG), Integer.class,
+                QUERY_CACHE_SIZE_DEFAULT);
+        fetchCache = queryCacheSize > 0 ? new RRD4jFetchCache(queryCacheSize) : null;
+
         // clean existing definitions
         rrdDefs.clear();
 
@@ -211,8 +246,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         while (keys.hasNext()) {
             String key = keys.next();
 
-            if ("service.pid".equals(key) || "component.name".equals(key)) {
-                // ignore service.pid and name
+            if ("service.pid".equals(key) || "component.name".equals(key) || SERVICE_CONFIG.contains(key)) {
+                // ignore service.pid, name and service settings
                 continue;
             }
 
@@ -266,6 +301,43 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private void configureWriter(final Map<String, Object> config) {
+        String backend = ConfigParser.valueAsOrElse(config.get(BACKEND_CONFIG), String.class,
+                RrdBackendFactory.getDefaultFactory().getName()).trim().toUpperCase();
+        int writerThreads = ConfigParser.valueAsOrElse(config.get(WRITER_THREADS_CONFIG), Integer.class,
+                WRITER_THREADS_DEFAULT);
+        int openFiles = ConfigParser.valueAsOrElse(config.get(OPEN_FILES_CONFIG), Integer.class, OPEN_FILES_DEFAULT);
+
+        RrdBackendFactory factory;
+        if (SUPPORTED_BACKENDS.contains(backend)) {
+            factory = RrdBackendFactory.getFactory(backend);
+        } else {
+            factory = RrdBackendFactory.getDefaultFactory();
+            logger.warn("Unsupported rrd4j backend '{}', using '{}'", backend, factory.getName());
+        }
+        writerThreads = Math.max(1, writerThreads);
+        openFiles = Math.max(writerThreads, openFiles);
+
+        String newWriterConfig = factory.getName() + "/" + writerThreads + "/" + openFiles;
+        synchronized (writerLock) {
+            RRD4jWriter oldWriter = writer;
+            if (oldWriter != null) {
+                if (newWriterConfig.equals(writerConfig)) {
+                    return;
+                }
+                // write the samples that are already scheduled and close all files before switching the backend
+                oldWriter.close();
+            }
+
+            backendFactory = factory;
+            DATABASE_POOL.setCapacity(openFiles + POOL_RESERVE);
+            writer = new RRD4jWriter(this::getDB, this::invalidateFetchCache, writerThreads, openFiles);
+            writerConfig = newWriterConfig;
+        }
+        logger.debug("Using rrd4j backend '{}' with {} writer thread(s) and up to {} open files", factory.getName(),
+                writerThreads, openFiles);
+    }
+
     @Deactivate
     protected void deactivate() {
         active = false;
@@ -273,6 +345,14 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         // make sure we really store everything
         doStore(true);
+
+        synchronized (writerLock) {
+            RRD4jWriter writer = this.writer;
+            if (writer != null) {
+                writer.close();
+                this.writer = null;
+            }
+        }
     }
 
     @Override
@@ -339,6 +419,17 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     private void doStore(boolean force) {
+        synchronized (writerLock) {
+            RRD4jWriter writer = this.writer;
+            if (writer != null) {
+                doStore(writer, force);
+            }
+        }
+    }
+
+    private void doStore(RRD4jWriter writer, boolean force) {
+        // group the pending samples by database, the samples of each database stay ordered by timestamp
+        Map<String, List<Point>> samples = new HashMap<>();
         long now = System.currentTimeMillis() / 1000;
         while (!storageMap.isEmpty()) {
             Key key = storageMap.firstKey();
@@ -346,64 +437,34 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 // no new elements can be added for this timestamp because we are already past that time or the service
                 // requires forced storing
                 Double value = storageMap.pollFirstEntry().getValue();
-                writePointToDatabase(key.name, value, key.timestamp);
+                samples.computeIfAbsent(key.name, k -> new ArrayList<>()).add(new Point(key.timestamp, value));
             } else {
-                return;
+                break;
             }
         }
-    }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
-        RrdDb db = null;
-        try {
-            db = getDB(name, true);
-        } catch (Exception e) {
-            logger.warn("Failed to open rrd4j database '{}' to store data ({})", name, e.toString());
-        }
-        if (db == null) {
-            return;
+        if (!samples.isEmpty()) {
+            writer.write(samples);
         }
+    }
 
-        ConsolFun function = getConsolidationFunction(db);
-        if (function != ConsolFun.AVERAGE) {
-            try {
-                // we store the last value again, so that the value change
-                // in the database is not interpolated, but
-                // happens right at this spot
-                if (timestamp - 1 > db.getLastUpdateTime()) {
-                    // only do it if there is not already a value
-                    double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
-                    if (!Double.isNaN(lastValue)) {
-                        Sample sample = db.createSample();
-                        sample.setTime(timestamp - 1);
-                        sample.setValue(DATASOURCE_STATE, lastValue);
-                        sample.update();
-                        logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database (again)", name,
-                                lastValue, timestamp - 1);
-                    }
-                }
-            } catch (IOException e) {
-                logger.debug("Error storing last value (again) for {}: {}", e.getMessage(), name);
-            }
-        }
-        try {
-            Sample sample = db.createSample();
-            sample.setTime(timestamp);
-            double storeValue = value;
-            if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) {
-                // counter values must be adjusted by stepsize
-                storeValue = value * db.getRrdDef().getStep();
-            }
-            sample.setValue(DATASOURCE_STATE, storeValue);
-            sample.update();
-            logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database", name, storeValue, timestamp);
-        } catch (Exception e) {
-            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
-        }
-        try {
-            db.close();
-        } catch (IOException e) {
-            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+    /**
+     * Closes the database of the given item if it is kept open by the writer, e.g. before the file is deleted.
+     *
+     * @param name the item name (or alias)
+     */
+    public void releaseDB(String name) {
+        RRD4jWriter writer = this.writer;
+        if (writer != null) {
+            writer.release(name);
+        }
+        invalidateFetchCache(name);
+    }
+
+    private void invalidateFetchCache(String name) {
+        RRD4jFetchCache fetchCache = this.fetchCache;
+        if (fetchCache != null) {
+            fetchCache.invalidate(name);
         }
     }
 
@@ -496,34 +557,25 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 return List.of();
             }
 
-            FetchRequest request = db.createFetchRequest(getConsolidationFunction(db), start, end, 1);
-            FetchData result = request.fetchData();
-
-            List<HistoricItem> items = new ArrayList<>();
-            long ts = result.getFirstTimestamp();
-            ZonedDateTime zdt = ZonedDateTime.ofInstant(Instant.ofEpochSecond(ts), ZoneId.systemDefault());
-            long step = result.getRowCount() > 1 ? result.getStep() : 0;
-
-            double prevValue = Double.NaN;
-            State prevState = null;
-            for (double value : result.getValues(DATASOURCE_STATE)) {
-                if (!Double.isNaN(value) && (((ts >= start) && (ts <= end)) || (start == end))) {
-                    State state;
-
-                    if (prevValue == value) {
-                        state = prevState;
-                    } else {
-                        prevState = state = toState.apply(value);
-                        prevValue = value;
-                    }
-
-                    RRD4jItem rrd4jItem = new RRD4jItem(itemName, state, zdt);
-                    items.add(rrd4jItem);
+            ConsolFun consolFun = getConsolidationFunction(db);
+            RRD4jFetchCache fetchCache = this.fetchCache;
+            FetchKey key = FetchKey.of(itemName, consolFun, db.getRrdDef().getStep(), start, end);
+            FetchResult result = fetchCache != null ? fetchCache.get(key) : null;
+            if (result == null) {
+                long version = fetchCache != null ? fetchCache.getVersion(itemName) : 0;
+                FetchRequest request = db.createFetchRequest(consolFun, start, end, 1);
+                FetchData data = request.fetchData();
+                result = new FetchResult(data.getFirstTimestamp(), data.getRowCount() > 1 ? data.getStep() : 0,
+                        data.getValues(DATASOURCE_STATE));
+                if (fetchCache != null) {
+                    fetchCache.put(key, result, version);
                 }
-                zdt = zdt.plusSeconds(step);
-                ts += step;
+            } else {
+                logger.trace("Using cached rrd4j data for item '{}'", itemName);
             }
-            return items;
+
+            // the historic items are only created when the result is consumed
+            return result.toHistoricItems(itemName, start, end, toState);
         } catch (IOException e) {
             logger.warn("Could not query rrd4j database for item '{}': {}", itemName, e.getMessage());
             return List.of();
@@ -547,6 +599,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         try {
             Builder builder = RrdDb.getBuilder();
             builder.setPool(DATABASE_POOL);
+            builder.setBackendFactory(backendFactory);
 
             if (Files.exists(path)) {
                 // recreate the RrdDb instance from the file
@@ -623,7 +676,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
-    public ConsolFun getConsolidationFunction(RrdDb db) {
+    public static ConsolFun getConsolidationFunction(RrdDb db) {
         try {
             return db.getRrdDef().getArcDefs()[0].getConsolFun();
         } catch (IOException e) {
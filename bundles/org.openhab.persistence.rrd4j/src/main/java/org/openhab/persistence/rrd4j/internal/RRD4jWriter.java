@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService.DATASOURCE_STATE;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.rrd4j.ConsolFun;
+import org.rrd4j.DsType;
+import org.rrd4j.core.RrdDb;
+import org.rrd4j.core.Sample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RRD4jWriter} writes samples to the RRD files. Every database is assigned to one of several shards by its
+ * name, each shard has its own thread and keeps the most recently used databases open, so that consecutive writes to
+ * the same file do not need to open and close it again. All pending samples of a database are written in one pass.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jWriter {
+
+    /**
+     * A single sample
+     *
+     * @param timestamp the timestamp in seconds
+     * @param value the value to store
+     */
+    public record Point(long timestamp, double value) {
+    }
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Logger logger = LoggerFactory.getLogger(RRD4jWriter.class);
+
+    private final BiFunction<String, Boolean, @Nullable RrdDb> opener;
+    private final Consumer<String> writeListener;
+    private final Shard[] shards;
+
+    /**
+     * @param opener the function to open (and optionally create) the database of the given name
+     * @param writeListener called with the database name after samples have been written
+     * @param shardCount the number of writer threads
+     * @param maxOpenFiles the maximum number of databases kept open (distributed over the shards)
+     */
+    public RRD4jWriter(BiFunction<String, Boolean, @Nullable RrdDb> opener, Consumer<String> writeListener,
+            int shardCount, int maxOpenFiles) {
+        this.opener = opener;
+        this.writeListener = writeListener;
+        this.shards = new Shard[Math.max(1, shardCount)];
+        int openFilesPerShard = Math.max(1, maxOpenFiles / shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, openFilesPerShard);
+        }
+    }
+
+    /**
+     * Schedules the samples for writing. The samples of every database must be ordered by timestamp.
+     *
+     * @param samples the pending samples, grouped by database name
+     */
+    public void write(Map<String, List<Point>> samples) {
+        samples.forEach((name, points) -> {
+            Shard shard = getShard(name);
+            try {
+                shard.executor.execute(() -> shard.write(name, points));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Discarding {} samples for '{}' because the writer is stopped", points.size(), name);
+            }
+        });
+    }
+
+    /**
+     * Closes the database of the given name if it is kept open by the writer, e.g. before the file is deleted.
+     *
+     * @param name the database name
+     */
+    public void release(String name) {
+        Shard shard = getShard(name);
+        try {
+            shard.executor.submit(() -> shard.close(name)).get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            logger.debug("Failed to release rrd4j database '{}': {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes all scheduled samples, closes all open databases and stops the writer threads.
+     */
+    public void close() {
+        List<Future<?>> futures = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            try {
+                futures.add(shard.executor.submit(shard::closeAll));
+            } catch (RejectedExecutionException e) {
+                // already closed
+            }
+            shard.executor.shutdown();
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warn("Failed to write pending samples to rrd4j database: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Shard getShard(String name) {
+        return shards[Math.floorMod(name.hashCode(), shards.length)];
+    }
+
+    private class Shard {
+        private final ExecutorService executor;
+        // only accessed from the executor thread
+        private final Map<String, RrdDb> openDatabases;
+
+        private Shard(int index, int maxOpenFiles) {
+            this.executor = Executors.newSingleThreadExecutor(new NamedThreadFactory("RRD4j-writer-" + index));
+            this.openDatabases = new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, RrdDb> eldest) {
+                    if (eldest != null && size() > maxOpenFiles) {
+                        closeDatabase(eldest.getKey(), eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private void write(String name, List<Point> points) {
+            RrdDb db = openDatabases.get(name);
+            if (db == null || db.isClosed()) {
+                try {
+                    db = opener.apply(name, true);
+                } catch (Exception e) {
+                    logger.warn("Failed to open rrd4j database '{}' to store data ({})", name, e.toString());
+                }
+                if (db == null) {
+                    return;
+                }
+                openDatabases.put(name, db);
+            }
+
+            boolean storeLastValue;
+            boolean counter;
+            long step;
+            Sample sample;
+            try {
+                storeLastValue = RRD4jPersistenceService.getConsolidationFunction(db) != ConsolFun.AVERAGE;
+                counter = db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER;
+                step = db.getRrdDef().getStep();
+                sample = db.createSample();
+            } catch (IOException e) {
+                logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+                close(name);
+                return;
+            }
+
+            for (Point point : points) {
+                long timestamp = point.timestamp();
+                if (storeLastValue) {
+                    try {
+                        // we store the last value again, so that the value change
+                        // in the database is not interpolated, but
+                        // happens right at this spot
+                        if (timestamp - 1 > db.getLastUpdateTime()) {
+                            // only do it if there is not already a value
+                            double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
+                            if (!Double.isNaN(lastValue)) {
+                                sample.setTime(timestamp - 1);
+                                sample.setValue(DATASOURCE_STATE, lastValue);
+                                sample.update();
+                                logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database (again)",
+                                        name, lastValue, timestamp - 1);
+                            }
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Error storing last value (again) for {}: {}", name, e.getMessage());
+                    }
+                }
+                try {
+                    // counter values must be adjusted by stepsize
+                    double storeValue = counter ? point.value() * step : point.value();
+                    sample.setTime(timestamp);
+                    sample.setValue(DATASOURCE_STATE, storeValue);
+                    sample.update();
+                    logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database", name, storeValue,
+                            timestamp);
+                } catch (Exception e) {
+                    logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+                }
+            }
+            writeListener.accept(name);
+        }
+
+        private void close(String name) {
+            RrdDb db = openDatabases.remove(name);
+            if (db != null) {
+                closeDatabase(name, db);
+            }
+        }
+
+        private void closeAll() {
+            openDatabases.forEach(this::closeDatabase);
+            openDatabases.clear();
+        }
+
+        private void closeDatabase(String name, RrdDb db) {
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database '{}': {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.rrd4j.internal.RRD4jFetchCache.FetchKey;
+import org.openhab.persistence.rrd4j.internal.RRD4jFetchCache.FetchResult;
+import org.rrd4j.ConsolFun;
+
+/**
+ * Tests the {@link RRD4jFetchCache}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jFetchCacheTest {
+    private static final String ITEM_NAME = "item";
+
+    @Test
+    public void keysAreRoundedToTheStep() {
+        FetchKey key = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 1201, 1799);
+
+        assertThat(key.start(), is(20L));
+        assertThat(key.end(), is(30L));
+        assertThat(FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 1259, 1741), is(key));
+        assertThat(FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 1260, 1799), is(not(key)));
+        assertThat(FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 1201, 1801), is(not(key)));
+        assertThat(FetchKey.of(ITEM_NAME, ConsolFun.MAX, 60, 1201, 1799), is(not(key)));
+    }
+
+    @Test
+    public void keysOfExactMultiplesAreNotRoundedUp() {
+        FetchKey key = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 1200, 1800);
+
+        assertThat(key.start(), is(20L));
+        assertThat(key.end(), is(30L));
+    }
+
+    @Test
+    public void cachedResultIsReturned() {
+        RRD4jFetchCache cache = new RRD4jFetchCache(100);
+        FetchKey key = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 0, 600);
+        FetchResult result = new FetchResult(0, 60, new double[] { 1, 2, 3 });
+
+        cache.put(key, result, cache.getVersion(ITEM_NAME));
+
+        assertThat(cache.get(key), is(sameInstance(result)));
+    }
+
+    @Test
+    public void writeInvalidatesCachedResults() {
+        RRD4jFetchCache cache = new RRD4jFetchCache(100);
+        FetchKey key = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 0, 600);
+        FetchKey otherKey = FetchKey.of("other", ConsolFun.AVERAGE, 60, 0, 600);
+        cache.put(key, new FetchResult(0, 60, new double[] { 1 }), cache.getVersion(ITEM_NAME));
+        cache.put(otherKey, new FetchResult(0, 60, new double[] { 2 }), cache.getVersion("other"));
+
+        cache.invalidate(ITEM_NAME);
+
+        assertThat(cache.get(key), is(nullValue()));
+        assertThat(cache.get(otherKey), is(notNullValue()));
+    }
+
+    @Test
+    public void resultFetchedBeforeWriteIsNotCached() {
+        RRD4jFetchCache cache = new RRD4jFetchCache(100);
+        FetchKey key = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 0, 600);
+        long version = cache.getVersion(ITEM_NAME);
+
+        // a sample is written while the result is fetched
+        cache.invalidate(ITEM_NAME);
+        cache.put(key, new FetchResult(0, 60, new double[] { 1 }), version);
+
+        assertThat(cache.get(key), is(nullValue()));
+    }
+
+    @Test
+    public void leastRecentlyUsedResultsAreEvicted() {
+        RRD4jFetchCache cache = new RRD4jFetchCache(4);
+        FetchKey first = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 0, 600);
+        FetchKey second = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 600, 1200);
+        FetchKey third = FetchKey.of(ITEM_NAME, ConsolFun.AVERAGE, 60, 1200, 1800);
+        long version = cache.getVersion(ITEM_NAME);
+        cache.put(first, new FetchResult(0, 60, new double[] { 1, 2 }), version);
+        cache.put(second, new FetchResult(600, 60, new double[] { 3, 4 }), version);
+        cache.get(first);
+
+        cache.put(third, new FetchResult(1200, 60, new double[] { 5, 6 }), version);
+
+        assertThat(cache.get(first), is(notNullValue()));
+        assertThat(cache.get(second), is(nullValue()));
+        assertThat(cache.get(third), is(notNullValue()));
+    }
+
+    @Test
+    public void historicItemsAreFilteredByRangeAndSkipNaN() {
+        FetchResult result = new FetchResult(0, 60, new double[] { 1, Double.NaN, 3, 4 });
+        List<Long> timestamps = new ArrayList<>();
+        List<Object> states = new ArrayList<>();
+        for (HistoricItem item : result.toHistoricItems(ITEM_NAME, 60, 180, DecimalType::new)) {
+            timestamps.add(item.getTimestamp().toEpochSecond());
+            states.add(item.getState());
+        }
+
+        assertThat(timestamps, is(List.of(120L, 180L)));
+        assertThat(states, is(List.of(new DecimalType(3), new DecimalType(4))));
+    }
+}
@@ -12,7 +12,11 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -22,6 +26,9 @@ import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,20 +37,62 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
  *
+ * A command line prefixed with <code>worker:</code> is started once and kept running. Values are written line by line
+ * to its standard input and every line of its standard output is a result, see {@link ExecWorkerPool}.
+ *
  * @author Pauli Anttila - Initial contribution
  * @author Jan N. Klug - added command whitelist service
  */
 @NonNullByDefault
-@Component(property = { "openhab.transform=EXEC" })
+@Component(configurationPid = "org.openhab.transform.exec", //
+        configurationPolicy = ConfigurationPolicy.OPTIONAL, property = { "openhab.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
     private static final Pattern SPLIT_ON_SPACE = Pattern.compile("(['])((?:\\\\\\1|.)+?)\\1|([^\\s']+)");
+    private static final String WORKER_PREFIX = "worker:";
+    private static final int DEFAULT_WORKER_POOL_SIZE = 1;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
     private final ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService;
+    private final Map<String, ExecWorkerPool> workerPools = new ConcurrentHashMap<>();
+
+    private int workerPoolSize = DEFAULT_WORKER_POOL_SIZE;
+    private Duration workerTimeout = DEFAULT_TIMEOUT;
 
     @Activate
     public ExecTransformationService(
-            @Reference ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService) {
+            @Reference ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService,
+            Map<String, Object> config) {
         this.execTransformationWhitelistWatchService = execTransformationWhitelistWatchService;
+        modified(config);
+    }
+
+    @Modified
+    public void modified(Map<String, Object> config) {
+        try {
+            Object poolSize = config.get("workerPoolSize");
+            workerPoolSize = poolSize == null ? DEFAULT_WORKER_POOL_SIZE
+                    : Math.max(1, new BigDecimal(poolSize.toString()).intValueExact());
+            Object timeout = config.get("workerTimeout");
+            workerTimeout = timeout == null ? DEFAULT_TIMEOUT
+                    : Duration.ofMillis(Math.max(1, new BigDecimal(timeout.toString()).longValueExact()));
+        } catch (NumberFormatException | ArithmeticException e) {
+            logger.warn("Invalid worker configuration, using the defaults: {}", e.getMessage());
+            workerPoolSize = DEFAULT_WORKER_POOL_SIZE;
+            workerTimeout = DEFAULT_TIMEOUT;
+        }
+        // the pools are created again with the new size
+        closeWorkerPools();
+    }
+
+    @Deactivate
+    public void deactivate() {
+        closeWorkerPools();
+    }
+
+    private void closeWorkerPools() {
+        workerPools.values().forEach(ExecWorkerPool::close);
+        workerPools.clear();
     }
 
     /**
@@ -61,18 +110,35 @@ public class ExecTransformationService implements TransformationService {
 
         if (!execTransformationWhitelistWatchService.isWhitelisted(commandLine)) {
             logger.warn("Tried to execute '{}', but it is not contained in whitelist.", commandLine);
+            // stop the workers of a command which has been removed from the whitelist
+            ExecWorkerPool workerPool = workerPools.remove(commandLine);
+            if (workerPool != null) {
+                workerPool.close();
+            }
             return null;
         }
         logger.debug("about to transform '{}' by the commandline '{}'", source, commandLine);
 
         long startTime = System.currentTimeMillis();
 
+        if (commandLine.startsWith(WORKER_PREFIX)) {
+            ExecWorkerPool workerPool = workerPools.computeIfAbsent(commandLine,
+                    c -> new ExecWorkerPool(splitCommandLine(c.substring(WORKER_PREFIX.length())), workerPoolSize));
+            String result = workerPool.transform(source, workerTimeout);
+            logger.trace("worker execution elapsed {} ms", System.currentTimeMillis() - startTime);
+            return result;
+        }
+
         String formattedCommandLine = String.format(commandLine, source);
-        String[] cmdLineParts = SPLIT_ON_SPACE.matcher(formattedCommandLine).results()
-                .map(mr -> mr.group(2) == null ? mr.group() : mr.group(2)).toArray(String[]::new);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(Duration.ofSeconds(5), cmdLineParts);
+        String[] cmdLineParts = splitCommandLine(formattedCommandLine).toArray(String[]::new);
+        String result = ExecUtil.executeCommandLineAndWaitResponse(DEFAULT_TIMEOUT, cmdLineParts);
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
     }
+
+    private static List<String> splitCommandLine(String commandLine) {
+        return SPLIT_ON_SPACE.matcher(commandLine).results().map(mr -> mr.group(2) == null ? mr.group() : mr.group(2))
+                .toList();
+    }
 }
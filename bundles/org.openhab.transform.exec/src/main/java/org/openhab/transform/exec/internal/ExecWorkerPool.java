@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecWorkerPool} keeps up to poolSize long-lived processes of one command. A value is transformed by
+ * writing it as a line to the standard input of an idle process and reading one line from its standard output.
+ *
+ * Processes are started on demand. A process which exits or does not answer within the timeout is destroyed and
+ * replaced by a new one on the next call.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecWorkerPool {
+    private static final Object EOF = new Object();
+
+    private final Logger logger = LoggerFactory.getLogger(ExecWorkerPool.class);
+
+    private final List<String> command;
+    private final int poolSize;
+    private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+    private int workers;
+    private boolean closed;
+
+    /**
+     * @param command the command and its arguments
+     * @param poolSize the maximum number of processes
+     */
+    public ExecWorkerPool(List<String> command, int poolSize) {
+        this.command = List.copyOf(command);
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    /**
+     * Transforms a value by an idle process of the pool. Line breaks in the value are replaced by spaces.
+     *
+     * @param value the value
+     * @param timeout the maximum time to wait for an idle process and its answer
+     * @return the answer or null if the process could not be started, failed or timed out
+     */
+    public @Nullable String transform(String value, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Worker worker = null;
+        try {
+            worker = borrow(deadline);
+            if (worker == null) {
+                logger.warn("No worker of '{}' available within {} ms", String.join(" ", command),
+                        timeout.toMillis());
+                return null;
+            }
+            String result = worker.transform(value.replace('\r', ' ').replace('\n', ' '), deadline);
+            if (result == null) {
+                logger.warn("Worker of '{}' did not answer within {} ms, restarting it", String.join(" ", command),
+                        timeout.toMillis());
+                discard(worker);
+                worker = null;
+            }
+            return result;
+        } catch (IOException e) {
+            logger.warn("Worker of '{}' failed, restarting it: {}", String.join(" ", command), e.getMessage());
+            if (worker != null) {
+                discard(worker);
+                worker = null;
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (worker != null) {
+                // the answer may still arrive and would be read by the next call
+                discard(worker);
+                worker = null;
+            }
+            return null;
+        } finally {
+            if (worker != null) {
+                release(worker);
+            }
+        }
+    }
+
+    /**
+     * Destroys all processes. Processes in use are destroyed when they are returned.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            discard(worker);
+        }
+    }
+
+    private @Nullable Worker borrow(long deadline) throws IOException, InterruptedException {
+        Worker worker = idleWorkers.poll();
+        while (worker == null || !worker.isAlive()) {
+            if (worker != null) {
+                logger.debug("Worker of '{}' has exited, restarting it", String.join(" ", command));
+                discard(worker);
+            }
+            synchronized (this) {
+                if (closed) {
+                    return null;
+                }
+                if (workers < poolSize) {
+                    workers++;
+                    try {
+                        return new Worker(start());
+                    } catch (IOException e) {
+                        workers--;
+                        throw e;
+                    }
+                }
+            }
+            worker = idleWorkers.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (worker == null) {
+                return null;
+            }
+        }
+        return worker;
+    }
+
+    private void release(Worker worker) {
+        synchronized (this) {
+            if (closed) {
+                discard(worker);
+                return;
+            }
+        }
+        idleWorkers.add(worker);
+    }
+
+    private void discard(Worker worker) {
+        worker.destroy();
+        synchronized (this) {
+            workers--;
+        }
+    }
+
+    private Process start() throws IOException {
+        logger.debug("Starting worker '{}'", String.join(" ", command));
+        return new ProcessBuilder(command).redirectError(Redirect.DISCARD).start();
+    }
+
+    /**
+     * A running process and the lines read from its standard output
+     */
+    private class Worker {
+        private final Process process;
+        private final Writer input;
+        // lines of the output, EOF after the process closed it
+        private final BlockingQueue<Object> output = new LinkedBlockingQueue<>();
+
+        Worker(Process process) {
+            this.process = process;
+            this.input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+            Thread reader = new Thread(this::readOutput, "OH-transform-exec-worker-" + process.pid());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        boolean isAlive() {
+            return process.isAlive() && !output.contains(EOF);
+        }
+
+        @Nullable
+        String transform(String value, long deadline) throws IOException, InterruptedException {
+            input.write(value);
+            input.write('\n');
+            input.flush();
+            Object line = output.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (line == EOF) {
+                throw new IOException("the process has closed its output");
+            }
+            return (String) line;
+        }
+
+        void destroy() {
+            process.destroy();
+        }
+
+        private void readOutput() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.add(line);
+                }
+            } catch (IOException e) {
+                logger.trace("Reading the output of worker '{}' failed: {}", String.join(" ", command),
+                        e.getMessage());
+            }
+            output.add(EOF);
+        }
+    }
+}
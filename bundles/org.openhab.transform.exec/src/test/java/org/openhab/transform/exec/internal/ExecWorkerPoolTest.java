@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+/**
+ * Tests the {@link ExecWorkerPool} with a shell script which answers each line with its process id and the line.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@DisabledOnOs(OS.WINDOWS)
+public class ExecWorkerPoolTest {
+    private static final List<String> SCRIPT = List.of("sh", "-c", """
+            while read line; do
+              case "$line" in
+                slow) sleep 0.5 ;;
+                hang) sleep 2 ;;
+                exit) exit 1 ;;
+              esac
+              echo "$$:$line"
+            done
+            """);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ExecWorkerPool pool = new ExecWorkerPool(SCRIPT, 2);
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    private static long pid(@Nullable String answer) {
+        assertThat(answer, is(notNullValue()));
+        return Long.parseLong(answer.substring(0, answer.indexOf(':')));
+    }
+
+    private static boolean isAlive(long pid) throws InterruptedException {
+        // destroying a process is asynchronous
+        for (int i = 0; i < 50; i++) {
+            if (!ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+        return true;
+    }
+
+    @Test
+    public void processIsReused() {
+        String first = pool.transform("a", TIMEOUT);
+        String second = pool.transform("b\nc", TIMEOUT);
+
+        assertThat(first, is(pid(first) + ":a"));
+        assertThat(second, is(pid(first) + ":b c"));
+    }
+
+    @Test
+    public void numberOfProcessesIsLimitedToThePoolSize() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<@Nullable String>> answers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                answers.add(executor.submit(() -> pool.transform("slow", TIMEOUT)));
+            }
+
+            Set<Long> pids = new HashSet<>();
+            for (Future<@Nullable String> answer : answers) {
+                pids.add(pid(answer.get()));
+            }
+            assertThat(pids.size(), is(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void processIsRestartedAfterATimeout() throws Exception {
+        long pid = pid(pool.transform("a", TIMEOUT));
+
+        assertThat(pool.transform("hang", Duration.ofMillis(200)), is(nullValue()));
+
+        assertThat(isAlive(pid), is(false));
+        long restartedPid = pid(pool.transform("b", TIMEOUT));
+        assertThat(restartedPid, is(not(pid)));
+        // the late answer of the destroyed process is not read by the new one
+        assertThat(pool.transform("c", TIMEOUT), is(restartedPid + ":c"));
+    }
+
+    @Test
+    public void processIsRestartedAfterItHasExited() {
+        long pid = pid(pool.transform("a", TIMEOUT));
+
+        assertThat(pool.transform("exit", TIMEOUT), is(nullValue()));
+
+        assertThat(pid(pool.transform("b", TIMEOUT)), is(not(pid)));
+    }
+
+    @Test
+    public void busyProcessIsDestroyedWhenItIsReturnedAfterClose() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<@Nullable String> answer = executor.submit(() -> pool.transform("slow", TIMEOUT));
+            Thread.sleep(200);
+
+            pool.close();
+
+            long pid = pid(answer.get());
+            assertThat(isAlive(pid), is(false));
+            assertThat(pool.transform("a", TIMEOUT), is(nullValue()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,12 +32,21 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by Jinja2 Expressions.
  *
+ * <p>
+ * Parsed templates are kept in a bounded LRU cache. The value is only parsed as JSON if the template refers to
+ * <code>value_json</code>.
+ *
  * @author Jochen Klein - Initial contribution
  *
  */
@@ -44,10 +54,24 @@ import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 @Component(property = { "openhab.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 256;
+    private static final String VALUE_JSON = "value_json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
     private final Jinjava jinjava = new Jinjava();
 
+    private final Map<String, ParsedTemplate> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, ParsedTemplate> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     /**
      * Transforms the input <code>value</code> by Jinja template.
      *
@@ -65,14 +89,18 @@ public class JinjaTransformationService implements TransformationService {
         bindings.put("value", value);
 
         try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
-        }
+            ParsedTemplate parsedTemplate = getParsedTemplate(template);
 
-        try {
-            transformationResult = jinjava.render(template, bindings);
+            if (parsedTemplate.usesValueJson()) {
+                try {
+                    JsonNode tree = OBJECT_MAPPER.readTree(value);
+                    bindings.put(VALUE_JSON, toObject(tree));
+                } catch (IOException e) {
+                    // ok, then value_json is null...
+                }
+            }
+
+            transformationResult = render(template, parsedTemplate.root(), bindings);
         } catch (FatalTemplateErrorsException e) {
             throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
         }
@@ -82,6 +110,61 @@ public class JinjaTransformationService implements TransformationService {
         return transformationResult;
     }
 
+    private ParsedTemplate getParsedTemplate(String template) {
+        synchronized (cache) {
+            ParsedTemplate parsedTemplate = cache.get(template);
+            if (parsedTemplate != null) {
+                return parsedTemplate;
+            }
+        }
+
+        JinjavaInterpreter interpreter = newInterpreter(Map.of());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        Node root;
+        try {
+            root = interpreter.parse(template);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+        // a template which fails to parse is not cached
+        checkErrors(template, interpreter);
+
+        ParsedTemplate parsedTemplate = new ParsedTemplate(root, template.contains(VALUE_JSON));
+        synchronized (cache) {
+            cache.put(template, parsedTemplate);
+        }
+        return parsedTemplate;
+    }
+
+    /**
+     * Renders a parsed template, like {@link Jinjava#render(String, Map)} does for the template text.
+     */
+    private String render(String template, Node root, Map<String, @Nullable Object> bindings) {
+        JinjavaInterpreter interpreter = newInterpreter(bindings);
+        JinjavaInterpreter.pushCurrent(interpreter);
+        String result;
+        try {
+            result = interpreter.render(root, true);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+        checkErrors(template, interpreter);
+        return result;
+    }
+
+    private JinjavaInterpreter newInterpreter(Map<String, ?> bindings) {
+        Context context = new Context(jinjava.getGlobalContext(), bindings, jinjava.getGlobalConfig().getDisabled());
+        return new JinjavaInterpreter(jinjava, context, jinjava.getGlobalConfig());
+    }
+
+    private static void checkErrors(String template, JinjavaInterpreter interpreter) {
+        List<TemplateError> fatalErrors = interpreter.getErrorsCopy().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).toList();
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
+        }
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -111,4 +194,11 @@ public class JinjaTransformationService implements TransformationService {
                 return null;
         }
     }
+
+    /**
+     * @param root the root node of the parsed template
+     * @param usesValueJson whether the template refers to the JSON value
+     */
+    private record ParsedTemplate(Node root, boolean usesValueJson) {
+    }
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hubspot.jinjava.Jinjava;
+
+/**
+ * Compares the renders per second of the {@link JinjaTransformationService} with the previous implementation, which
+ * rendered the template text and converted the value with a new mapper into a tree of objects for every render.
+ *
+ * Run manually, the numbers depend on the machine.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Disabled // benchmark, run manually
+public class JinjaTransformationServiceBenchmark {
+
+    private static final int WARMUP_RENDERS = 20_000;
+    private static final int RENDERS = 200_000;
+
+    private static final String JSON = "{\"Time\":\"2019-01-05T22:45:12\",\"AM2301\":{\"Temperature\":4.7,"
+            + "\"Humidity\":99.9},\"TempUnit\":\"C\"}";
+    private static final String JSON_TEMPLATE = "{{ value_json['AM2301'].Temperature | round(1) }}";
+    private static final String VALUE_TEMPLATE = "{{ 'ON' if value == '1' else 'OFF' }}";
+
+    private final Logger logger = LoggerFactory.getLogger(JinjaTransformationServiceBenchmark.class);
+
+    @Test
+    public void benchmarkJsonTemplate() throws TransformationException {
+        benchmark(JSON_TEMPLATE, JSON);
+    }
+
+    @Test
+    public void benchmarkValueTemplate() throws TransformationException {
+        benchmark(VALUE_TEMPLATE, "1");
+    }
+
+    private void benchmark(String template, String value) throws TransformationException {
+        Jinjava jinjava = new Jinjava();
+        JinjaTransformationService service = new JinjaTransformationService();
+
+        assertEquals(renderPrevious(jinjava, template, value), service.transform(template, value));
+        for (int i = 0; i < WARMUP_RENDERS; i++) {
+            renderPrevious(jinjava, template, value);
+            service.transform(template, value);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < RENDERS; i++) {
+            renderPrevious(jinjava, template, value);
+        }
+        double before = RENDERS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < RENDERS; i++) {
+            service.transform(template, value);
+        }
+        double after = RENDERS / ((System.nanoTime() - start) / 1e9);
+
+        logger.info("{}: {} renders/s previously, {} renders/s now", template, Math.round(before),
+                Math.round(after));
+    }
+
+    private static String renderPrevious(Jinjava jinjava, String template, String value) {
+        Map<String, @Nullable Object> bindings = new HashMap<>();
+        bindings.put("value", value);
+        try {
+            JsonNode tree = new ObjectMapper().readTree(value);
+            bindings.put("value_json", toObject(tree));
+        } catch (IOException e) {
+            // ok, then value_json is null...
+        }
+        return jinjava.render(template, bindings);
+    }
+
+    private static @Nullable Object toObject(JsonNode node) {
+        switch (node.getNodeType()) {
+            case ARRAY: {
+                List<@Nullable Object> result = new ArrayList<>();
+                for (JsonNode el : node) {
+                    result.add(toObject(el));
+                }
+                return result;
+            }
+            case NUMBER:
+                return node.decimalValue();
+            case OBJECT: {
+                Map<String, @Nullable Object> result = new HashMap<>();
+                Iterator<Entry<String, JsonNode>> it = node.fields();
+                while (it.hasNext()) {
+                    Entry<String, JsonNode> field = it.next();
+                    result.put(field.getKey(), toObject(field.getValue()));
+                }
+                return result;
+            }
+            case STRING:
+                return node.asText();
+            case BOOLEAN:
+                return node.asBoolean();
+            case NULL:
+            default:
+                return null;
+        }
+    }
+}
@@ -113,4 +113,23 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testCachedTemplate() throws TransformationException {
+        String template = "{{ value_json.string }} {{ value }}";
+        assertEquals("world {\"string\": \"world\"}", processor.transform(template, "{\"string\": \"world\"}"));
+        // the parsed template is used again with other bindings
+        assertEquals("openHAB {\"string\": \"openHAB\"}",
+                processor.transform(template, "{\"string\": \"openHAB\"}"));
+        assertEquals(" plain", processor.transform(template, "plain"));
+    }
+
+    @Test
+    public void testCachedTemplateError() {
+        // a template error is reported again, failing templates are not cached
+        assertThrows(TransformationException.class,
+                () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+        assertThrows(TransformationException.class,
+                () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+    }
 }
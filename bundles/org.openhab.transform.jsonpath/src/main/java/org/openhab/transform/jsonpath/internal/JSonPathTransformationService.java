@@ -12,7 +12,10 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +27,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -32,6 +36,9 @@ import com.jayway.jsonpath.PathNotFoundException;
 /**
  * The implementation of a {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * Compiled expressions are cached. Parsed documents are cached for a short time, so that a payload which is
+ * transformed by the expressions of several channels is parsed only once.
+ *
  * @author Gaël L'hopital - Initial contribution
  * @author Sebastian Janzen - Initial contribution
  */
@@ -39,8 +46,15 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    private static final int PATH_CACHE_SIZE = 256;
+    private static final int DOCUMENT_CACHE_SIZE = 16;
+    private static final long DOCUMENT_CACHE_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Map<String, JsonPath> pathCache = createLruMap(PATH_CACHE_SIZE);
+    private final Map<String, ParsedDocument> documentCache = createLruMap(DOCUMENT_CACHE_SIZE);
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -62,15 +76,7 @@ public class JSonPathTransformationService implements TransformationService {
             return null;
         }
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
-            logger.debug("transformation resulted in '{}'", transformationResult);
-            if (transformationResult == null) {
-                return null;
-            } else if (transformationResult instanceof List<?> list) {
-                return flattenList(list);
-            } else {
-                return transformationResult.toString();
-            }
+            return read(getDocument(source), getPath(jsonPathExpression));
         } catch (PathNotFoundException e) {
             throw new TransformationException("Invalid path '" + jsonPathExpression + "' in '" + source + "'");
         } catch (InvalidPathException | InvalidJsonException e) {
@@ -78,6 +84,64 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private @Nullable String read(DocumentContext document, JsonPath path) {
+        Object transformationResult = document.read(path);
+        logger.debug("transformation resulted in '{}'", transformationResult);
+        if (transformationResult == null) {
+            return null;
+        } else if (transformationResult instanceof List<?> list) {
+            return flattenList(list);
+        } else {
+            return transformationResult.toString();
+        }
+    }
+
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (pathCache) {
+            JsonPath path = pathCache.get(jsonPathExpression);
+            if (path != null) {
+                return path;
+            }
+        }
+        // compile outside the lock, an invalid expression throws and is not cached
+        JsonPath path = JsonPath.compile(jsonPathExpression);
+        synchronized (pathCache) {
+            pathCache.put(jsonPathExpression, path);
+        }
+        return path;
+    }
+
+    private DocumentContext getDocument(String source) {
+        long now = System.nanoTime();
+        synchronized (documentCache) {
+            ParsedDocument document = documentCache.get(source);
+            if (document != null && now - document.parsedAt() < DOCUMENT_CACHE_TTL_NANOS) {
+                return document.context();
+            }
+        }
+        DocumentContext context = JsonPath.parse(source);
+        synchronized (documentCache) {
+            // expired documents are dropped here, otherwise they are kept until the LRU limit evicts them
+            documentCache.values().removeIf(document -> now - document.parsedAt() >= DOCUMENT_CACHE_TTL_NANOS);
+            documentCache.put(source, new ParsedDocument(context, now));
+        }
+        return context;
+    }
+
+    private static <V> Map<String, V> createLruMap(int maxSize) {
+        return new LinkedHashMap<>(maxSize, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private record ParsedDocument(DocumentContext context, long parsedAt) {
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -129,4 +129,12 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testCachedDocumentIsNotModified() throws TransformationException {
+        // the parsed document is reused for the following transformations of the same source
+        assertEquals("[1, 2]", processor.transform("$[*].id", JSON_ARRAY));
+        assertEquals("alice", processor.transform("$[1].name", JSON_ARRAY));
+        assertEquals("[1, 2]", processor.transform("$[*].id", JSON_ARRAY));
+    }
 }
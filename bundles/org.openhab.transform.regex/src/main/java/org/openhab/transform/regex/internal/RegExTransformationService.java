@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -20,6 +23,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,16 +34,39 @@ import org.slf4j.LoggerFactory;
  * <p>
  * <b>Note:</b> the given Regular Expression must contain exactly one group!
  *
+ * <p>
+ * Parsed expressions are kept in a bounded LRU cache, so that a pattern is compiled only once.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=REGEX" })
 public class RegExTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 256;
+
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    private final Map<String, RegExSpec> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, RegExSpec> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    @Deactivate
+    public void deactivate() {
+        CacheStatistics statistics = getCacheStatistics();
+        logger.debug("Expression cache held {} expressions, {} hits and {} misses", statistics.size(),
+                statistics.hits(), statistics.misses());
+    }
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -48,50 +75,95 @@ public class RegExTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, regExpression);
 
-        String result = "";
+        RegExSpec spec = getSpec(regExpression);
+        String trimmedSource = source.trim();
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        String substitution = spec.substitution();
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if ("g".equals(options)) {
-                result = source.trim().replaceAll(regex, substitution);
-            } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
-            }
+            Matcher matcher = spec.pattern().matcher(trimmedSource);
+            return spec.global() ? matcher.replaceAll(substitution) : matcher.replaceFirst(substitution);
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        // the pattern is anchored, so a match covers the whole source and there is no further match to find
+        Matcher matcher = spec.pattern().matcher(trimmedSource);
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
                     regExpression, source);
             return null;
         }
-        matcher.reset();
-
-        while (matcher.find()) {
-            if (matcher.groupCount() == 0) {
-                logger.info(
-                        "the given regular expression '^{}$' doesn't contain a group. No content will be extracted and returned!",
-                        regExpression);
-                continue;
-            }
 
-            result = matcher.group(1);
+        if (matcher.groupCount() == 0) {
+            logger.info(
+                    "the given regular expression '^{}$' doesn't contain a group. No content will be extracted and returned!",
+                    regExpression);
+            return "";
+        }
 
-            if (matcher.groupCount() > 1) {
-                logger.debug(
-                        "the given regular expression '^{}$' contains more than one group. Only the first group will be returned!",
-                        regExpression);
+        if (matcher.groupCount() > 1) {
+            logger.debug(
+                    "the given regular expression '^{}$' contains more than one group. Only the first group will be returned!",
+                    regExpression);
+        }
+
+        return matcher.group(1);
+    }
+
+    /**
+     * @return the hit and miss counters of the expression cache
+     */
+    public CacheStatistics getCacheStatistics() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new CacheStatistics(size, cacheHits.sum(), cacheMisses.sum());
+    }
+
+    private RegExSpec getSpec(String regExpression) {
+        synchronized (cache) {
+            RegExSpec spec = cache.get(regExpression);
+            if (spec != null) {
+                cacheHits.increment();
+                return spec;
             }
         }
+        cacheMisses.increment();
+        // compile outside the lock, an invalid expression throws and is not cached
+        RegExSpec spec = parse(regExpression);
+        synchronized (cache) {
+            cache.put(regExpression, spec);
+        }
+        return spec;
+    }
+
+    private static RegExSpec parse(String regExpression) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            return new RegExSpec(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    "g".equals(substMatcher.group(3)));
+        }
+        return new RegExSpec(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null, false);
+    }
+
+    /**
+     * A parsed transformation expression
+     *
+     * @param pattern the compiled pattern
+     * @param substitution the replacement of the substitution form or null for the extraction form
+     * @param global whether the substitution replaces all matches
+     */
+    private record RegExSpec(Pattern pattern, @Nullable String substitution, boolean global) {
+    }
 
-        return result;
+    /**
+     * Counters of the expression cache
+     *
+     * @param size the number of cached expressions
+     * @param hits the number of transformations which used a cached expression
+     * @param misses the number of transformations which had to parse the expression
+     */
+    public record CacheStatistics(int size, long hits, long misses) {
     }
 }
@@ -75,4 +75,27 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_noMatch() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("OP:(.*)", "ARG:42");
+
+        // Asserts
+        assertNull(transformedResponse);
+    }
+
+    @Test
+    public void testTransformByRegex_cachedExpression() throws TransformationException {
+        // method under test
+        assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+        assertEquals("Reset(0)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", " OP:Reset,ARG:0 "));
+        assertEquals("42", processor.transform("OP:.*,ARG:(.*)", "OP:SetMode,ARG:42"));
+
+        // Asserts
+        RegExTransformationService.CacheStatistics statistics = processor.getCacheStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(1, statistics.hits());
+        assertEquals(2, statistics.misses());
+    }
 }
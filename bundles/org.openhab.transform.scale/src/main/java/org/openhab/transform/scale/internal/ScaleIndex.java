@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link ScaleIndex} is the compiled form of a scale file. The ranges of the file may overlap, the first range in
+ * file order wins. They are resolved into non-overlapping intervals: the sorted bounds of all ranges split the number
+ * line into the bounds themselves and the open gaps between them, and every bound and gap is labelled with the first
+ * range containing it. A lookup is a binary search over the bounds.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleIndex {
+
+    private final double[] bounds;
+    // the label of bounds[i]
+    private final @Nullable String[] boundLabels;
+    // the label of the gap before bounds[i], the last entry is the gap after the last bound
+    private final @Nullable String[] gapLabels;
+
+    private final String format;
+    private final @Nullable String nonNumericLabel;
+
+    /**
+     * @param ranges the ranges and their labels in file order
+     * @param format the presentation format
+     * @param nonNumericLabel the label for non-numeric inputs or null if there is none
+     */
+    public ScaleIndex(List<Map.Entry<Range, String>> ranges, String format, @Nullable String nonNumericLabel) {
+        this.format = format;
+        this.nonNumericLabel = nonNumericLabel;
+
+        bounds = ranges.stream().map(Map.Entry::getKey)
+                .flatMap(range -> Stream.of(range.min, range.max)).filter(bound -> bound != null)
+                .mapToDouble(bound -> normalize(bound.doubleValue())).sorted().distinct().toArray();
+
+        boundLabels = new @Nullable String[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            boundLabels[i] = firstMatch(ranges, bounds[i]);
+        }
+
+        gapLabels = new @Nullable String[bounds.length + 1];
+        for (int i = 0; i <= bounds.length; i++) {
+            double lower = i == 0 ? Double.NEGATIVE_INFINITY : bounds[i - 1];
+            double upper = i == bounds.length ? Double.POSITIVE_INFINITY : bounds[i];
+            double inner;
+            if (bounds.length == 0) {
+                inner = 0;
+            } else if (i == 0 || i == bounds.length) {
+                // all values of an outer gap are contained in the same ranges, the infinite end is one of them
+                inner = i == 0 ? lower : upper;
+            } else {
+                inner = lower + (upper - lower) / 2;
+                if (inner <= lower || inner >= upper) {
+                    // adjacent doubles, there is no value between them
+                    continue;
+                }
+            }
+            gapLabels[i] = firstMatch(ranges, inner);
+        }
+    }
+
+    /**
+     * @return the presentation format, containing the placeholders for the value and the label
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the label for non-numeric inputs or null if there is none
+     */
+    public @Nullable String getNonNumericLabel() {
+        return nonNumericLabel;
+    }
+
+    /**
+     * Finds the label of the first range containing the value.
+     *
+     * @param value the value
+     * @return the label or null if no range contains the value
+     */
+    public @Nullable String lookup(double value) {
+        int index = Arrays.binarySearch(bounds, normalize(value));
+        return index >= 0 ? boundLabels[index] : gapLabels[-index - 1];
+    }
+
+    private static @Nullable String firstMatch(List<Map.Entry<Range, String>> ranges, double value) {
+        for (Map.Entry<Range, String> entry : ranges) {
+            if (contains(entry.getKey(), value)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static boolean contains(Range range, double value) {
+        BigDecimal min = range.min;
+        if (min != null) {
+            double lower = normalize(min.doubleValue());
+            if (range.minInclusive ? value < lower : value <= lower) {
+                return false;
+            }
+        }
+        BigDecimal max = range.max;
+        if (max != null) {
+            double upper = normalize(max.doubleValue());
+            if (range.maxInclusive ? value > upper : value >= upper) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double normalize(double value) {
+        // Arrays.binarySearch orders -0.0 before 0.0
+        return value + 0.0;
+    }
+}
@@ -16,12 +16,13 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
@@ -75,11 +76,9 @@ public class ScaleTransformationService
     private static final String FORMAT_VALUE = "%value%";
     private static final String FORMAT_LABEL = "%label%";
 
-    /** Inaccessible range used to store presentation format ]0..0[ */
-    private static final Range FORMAT_RANGE = Range.range(BigDecimal.ZERO, false, BigDecimal.ZERO, false);
     private final TransformationRegistry transformationRegistry;
 
-    private final Map<String, Map<@Nullable Range, String>> cachedTransformations = new ConcurrentHashMap<>();
+    private final Map<String, ScaleIndex> cachedTransformations = new ConcurrentHashMap<>();
 
     @Activate
     public ScaleTransformationService(@Reference TransformationRegistry transformationRegistry) {
@@ -149,27 +148,29 @@ public class ScaleTransformationService
             if (!cachedTransformations.containsKey(transformation.getUID())) {
                 importConfiguration(transformation);
             }
-            Map<@Nullable Range, String> data = cachedTransformations.get(transformation.getUID());
+            ScaleIndex index = cachedTransformations.get(transformation.getUID());
 
-            if (data != null) {
+            if (index != null) {
                 String target;
 
-                try {
-                    final BigDecimal value = new BigDecimal(source);
-                    target = formatResult(data, source, value);
-                } catch (NumberFormatException e) {
+                double value = parseNumber(source);
+                if (Double.isNaN(value) && startsWithNumber(source)) {
                     // Scale can only be used with numeric inputs, so lets try to see if ever its a valid quantity type
                     try {
-                        final QuantityType<?> quantity = new QuantityType<>(source);
-                        return formatResult(data, source, quantity.toBigDecimal());
-                    } catch (IllegalArgumentException e2) {
-                        String nonNumeric = data.get(null);
-                        if (nonNumeric != null) {
-                            target = nonNumeric;
-                        } else {
-                            throw new TransformationException(
-                                    "Scale must be used with numeric inputs, valid quantity types or a 'NaN' entry.");
-                        }
+                        value = new QuantityType<>(source).doubleValue();
+                    } catch (IllegalArgumentException e) {
+                        // not a quantity either
+                    }
+                }
+                if (!Double.isNaN(value)) {
+                    target = formatResult(index, source, value);
+                } else {
+                    String nonNumeric = index.getNonNumericLabel();
+                    if (nonNumeric != null) {
+                        target = nonNumeric;
+                    } else {
+                        throw new TransformationException(
+                                "Scale must be used with numeric inputs, valid quantity types or a 'NaN' entry.");
                     }
                 }
                 logger.debug("Transformation resulted in '{}'", target);
@@ -180,25 +181,81 @@ public class ScaleTransformationService
         throw new TransformationException("Could not find configuration '" + function + "' or failed to parse it.");
     }
 
-    private String formatResult(Map<@Nullable Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        String format = data.get(FORMAT_RANGE);
-        String result = getScaleResult(data, source, value);
-        return format.replaceAll(FORMAT_VALUE, source).replaceAll(FORMAT_LABEL, result);
+    private String formatResult(ScaleIndex index, String source, double value) throws TransformationException {
+        String result = index.lookup(value);
+        if (result == null) {
+            throw new TransformationException("No matching range for '" + source + "'");
+        }
+        return index.getFormat().replace(FORMAT_VALUE, source).replace(FORMAT_LABEL, result);
+    }
+
+    /**
+     * Parses a number in the syntax accepted by {@link BigDecimal#BigDecimal(String)} without throwing an exception.
+     *
+     * @param source the input
+     * @return the value or {@link Double#NaN} if the input is not a number
+     */
+    static double parseNumber(String source) {
+        int length = source.length();
+        int i = 0;
+        if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && isDigit(source.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && source.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(source.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (i < length && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && isDigit(source.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return Double.NaN;
+            }
+        }
+        // the syntax has been checked, so parsing cannot fail
+        return i == length ? Double.parseDouble(source) : Double.NaN;
+    }
+
+    private static boolean startsWithNumber(String source) {
+        int i = 0;
+        if (i < source.length() && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+            i++;
+        }
+        if (i < source.length() && source.charAt(i) == '.') {
+            i++;
+        }
+        return i < source.length() && isDigit(source.charAt(i));
     }
 
-    private String getScaleResult(Map<@Nullable Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        return data.entrySet().stream().filter(entry -> entry.getKey() != null && entry.getKey().contains(value))
-                .findFirst().map(Map.Entry::getValue)
-                .orElseThrow(() -> new TransformationException("No matching range for '" + source + "'"));
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     private void importConfiguration(@Nullable Transformation configuration) {
         if (configuration != null) {
             try {
-                final Map<@Nullable Range, String> data = new LinkedHashMap<>();
-                data.put(FORMAT_RANGE, FORMAT_LABEL);
+                final List<Map.Entry<Range, String>> ranges = new ArrayList<>();
+                String format = FORMAT_LABEL;
+                @Nullable
+                String nonNumericLabel = null;
                 final OrderedProperties properties = new OrderedProperties();
                 String function = configuration.getConfiguration().get(Transformation.FUNCTION);
                 if (function == null) {
@@ -221,12 +278,12 @@ public class ScaleTransformationService
                         final BigDecimal highValue = highLimit.isEmpty() ? null : new BigDecimal(highLimit);
                         final Range range = Range.range(lowValue, lowerInclusive, highValue, upperInclusive);
 
-                        data.put(range, value);
+                        ranges.add(Map.entry(range, value));
                     } else {
                         if (NON_NUMBER.equals(entry)) {
-                            data.put(null, value);
+                            nonNumericLabel = value;
                         } else if (FORMAT.equals(entry)) {
-                            data.put(FORMAT_RANGE, value);
+                            format = value;
                         } else {
                             logger.warn(
                                     "Scale transformation configuration '{}' does not comply with syntax for entry : '{}', '{}'",
@@ -235,7 +292,7 @@ public class ScaleTransformationService
                     }
                 }
 
-                cachedTransformations.put(configuration.getUID(), data);
+                cachedTransformations.put(configuration.getUID(), new ScaleIndex(ranges, format, nonNumericLabel));
             } catch (IOException | NumberFormatException ignored) {
             }
         }
@@ -187,4 +187,33 @@ public class ScaleTransformServiceTest {
         String source = "200";
         assertThrows(TransformationException.class, () -> processor.transform(existingscale, source));
     }
+
+    @Test
+    public void testTransformByScaleBounds() throws TransformationException {
+        String existingscale = "scale" + File.separator + "evaluationorder.scale";
+
+        // ]..15[=first, [10..17[=second, [15..[=last
+        assertEquals("first", processor.transform(existingscale, "14.999"));
+        assertEquals("last", processor.transform(existingscale, "15"));
+        assertEquals("last", processor.transform(existingscale, "1.5e1"));
+        assertEquals("first", processor.transform(existingscale, "-1E+3"));
+        assertEquals("last", processor.transform(existingscale, "17"));
+    }
+
+    @Test
+    public void testParseNumber() {
+        assertEquals(12.0, ScaleTransformationService.parseNumber("12"));
+        assertEquals(-0.5, ScaleTransformationService.parseNumber("-.5"));
+        assertEquals(5.0, ScaleTransformationService.parseNumber("+5."));
+        assertEquals(1500.0, ScaleTransformationService.parseNumber("1.5E3"));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("-")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber(".")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("1e")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("12 ppm")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber(" 12")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("1d")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("NaN")));
+        assertTrue(Double.isNaN(ScaleTransformationService.parseNumber("Infinity")));
+    }
 }
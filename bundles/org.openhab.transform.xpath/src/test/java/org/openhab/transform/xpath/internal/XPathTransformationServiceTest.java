@@ -38,4 +38,19 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByCachedXPath() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testTransformByInvalidXPath() {
+        assertThrows(TransformationException.class, () -> processor.transform("//current_conditions[", source));
+        // the evaluator is returned to the pool after a failure and still works
+        assertThrows(TransformationException.class, () -> processor.transform("//temp_c/@data", "<xml"));
+        assertDoesNotThrow(() -> processor.transform("//current_conditions/temp_c/@data", source));
+    }
 }
@@ -15,9 +15,13 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -25,9 +29,13 @@ import javax.xml.transform.stream.StreamSource;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.service.WatchService;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,14 +43,49 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * <p>
+ * Compiled stylesheets are cached. The cache is cleared whenever a file in the transform folder changes, as a
+ * stylesheet may include or import other files.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XSLT" })
-public class XsltTransformationService implements TransformationService {
+public class XsltTransformationService implements TransformationService, WatchService.WatchEventListener {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final WatchService watchService;
+    private final Map<String, Templates> templatesCache = new ConcurrentHashMap<>();
+    // incremented whenever the cache is cleared, so that a stylesheet compiled before is not cached afterwards
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    // a TransformerFactory is not thread-safe, compiling is synchronized on it
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    @Activate
+    public XsltTransformationService(
+            final @Reference(target = WatchService.CONFIG_WATCHER_FILTER) WatchService watchService) {
+        this.watchService = watchService;
+        watchService.registerListener(this, Path.of(TransformationService.TRANSFORM_FOLDER_NAME));
+    }
+
+    @Deactivate
+    public void deactivate() {
+        watchService.unregisterListener(this);
+        clearCache();
+    }
+
+    @Override
+    public void processWatchEvent(WatchService.Kind kind, Path path) {
+        logger.debug("'{}' changed ({}), clearing the stylesheet cache", path, kind);
+        clearCache();
+    }
+
+    private void clearCache() {
+        cacheGeneration.incrementAndGet();
+        templatesCache.clear();
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,6 +103,32 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
+        Templates templates = getTemplates(filename);
+
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
+
+        StringReader xml = new StringReader(source);
+        StringWriter out = new StringWriter();
+
+        try {
+            templates.newTransformer().transform(new StreamSource(xml), new StreamResult(out));
+        } catch (Exception e) {
+            logger.error("transformation throws exception", e);
+            throw new TransformationException("transformation throws exception", e);
+        }
+
+        logger.debug("transformation resulted in '{}'", out.toString());
+
+        return out.toString();
+    }
+
+    private Templates getTemplates(String filename) throws TransformationException {
+        Templates templates = templatesCache.get(filename);
+        if (templates != null) {
+            return templates;
+        }
+        long generation = cacheGeneration.get();
+
         Source xsl = null;
 
         try {
@@ -73,23 +142,20 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException(message, e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
-
-        StringReader xml = new StringReader(source);
-        StringWriter out = new StringWriter();
-
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            synchronized (transformerFactory) {
+                templates = transformerFactory.newTemplates(xsl);
+            }
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
         }
-
-        logger.debug("transformation resulted in '{}'", out.toString());
-
-        return out.toString();
+        // a stylesheet which fails to compile is not cached, so it is read again after it has been fixed
+        templatesCache.put(filename, templates);
+        if (cacheGeneration.get() != generation) {
+            // the file may have changed while it was compiled
+            templatesCache.remove(filename, templates);
+        }
+        return templates;
     }
 }